@@ -5,9 +5,12 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -29,6 +32,10 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
+    public ResponseEntity<Object> decideBookings(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> getBookingById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -37,11 +44,34 @@ public class BookingClient extends BaseClient {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, String state) {
-        return get("/owner?state=" + state, userId);
+    public ResponseEntity<Object> countBookingsByBooker(long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> countBookingsByOwner(long userId) {
+        return get("/owner/counts", userId);
+    }
+
+    public ResponseEntity<Object> getBookingsByOwner(long userId, String state, String cursor, int from, int size) {
+        return getBookings("/owner", userId, state, cursor, from, size);
+    }
+
+    public ResponseEntity<Object> getBookingsByBookerAndState(long userId, String state, String cursor,
+                                                              int from, int size) {
+        return getBookings("", userId, state, cursor, from, size);
     }
 
-    public ResponseEntity<Object> getBookingsByBookerAndState(long userId, String state) {
-        return get("?state=" + state, userId);
+    private ResponseEntity<Object> getBookings(String path, long userId, String state, String cursor,
+                                               int from, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        StringBuilder query = new StringBuilder(path).append("?state={state}&from={from}&size={size}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        }
+        return get(query.toString(), userId, parameters);
     }
 }
\ No newline at end of file
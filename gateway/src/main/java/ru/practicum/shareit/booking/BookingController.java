@@ -1,15 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.intf.Create;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -30,6 +37,16 @@ public class BookingController {
         return bookingClient.createBooking(userId, bookingDto);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> decideBookings(
+            @RequestHeader(USER_ID)                      long userId,
+            @RequestBody @NotEmpty @Size(max = 100)
+            List<@Valid BookingDecisionDto> decisions
+                                                ) {
+        log.info("PATCH /bookings/batch: userId={}, decisions={}", userId, decisions.size());
+        return bookingClient.decideBookings(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(
             @RequestHeader(USER_ID)       long userId,
@@ -57,14 +74,37 @@ public class BookingController {
         return bookingClient.getBookingsByBooker(userId);
     }
 
+    @GetMapping("/counts")
+    public ResponseEntity<Object> countBookingsByBooker(
+            @RequestHeader(USER_ID) long userId
+                                                       ) {
+        log.info("GET /bookings/counts: userId={}", userId);
+        return bookingClient.countBookingsByBooker(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> countBookingsByOwner(
+            @RequestHeader(USER_ID) long userId
+                                                      ) {
+        log.info("GET /bookings/owner/counts: userId={}", userId);
+        return bookingClient.countBookingsByOwner(userId);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsByOwner(
             @RequestHeader(USER_ID)                        long userId,
             @RequestParam(value = "state", defaultValue = "ALL")
-            String state
+            String state,
+            @RequestParam(value = "cursor", required = false)
+            String cursor,
+            @RequestParam(value = "from", defaultValue = "0")
+            @PositiveOrZero                                Integer from,
+            @RequestParam(value = "size", defaultValue = "10")
+            @Positive @Max(100)                            Integer size
                                                     ) {
-        log.info("GET /bookings/owner?state={}: userId={}", state, userId);
-        return bookingClient.getBookingsByOwner(userId, state);
+        log.info("GET /bookings/owner?state={}: userId={}, cursor={}, from={}, size={}",
+                 state, userId, cursor, from, size);
+        return bookingClient.getBookingsByOwner(userId, state, cursor, from, size);
     }
 
     @GetMapping
@@ -72,13 +112,15 @@ public class BookingController {
             @RequestHeader(USER_ID)                        long userId,
             @RequestParam(value = "state", defaultValue = "ALL")
             String state,
+            @RequestParam(value = "cursor", required = false)
+            String cursor,
             @RequestParam(value = "from", defaultValue = "0")
             @PositiveOrZero                                Integer from,
             @RequestParam(value = "size", defaultValue = "10")
-            @Positive                                      Integer size
+            @Positive @Max(100)                            Integer size
                                                     ) {
-        log.info("GET /bookings?state={}: userId={}, from={}, size={}",
-                 state, userId, from, size);
-        return bookingClient.getBookingsByBookerAndState(userId, state);
+        log.info("GET /bookings?state={}: userId={}, cursor={}, from={}, size={}",
+                 state, userId, cursor, from, size);
+        return bookingClient.getBookingsByBookerAndState(userId, state, cursor, from, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+
+    @NotNull(message = "Идентификатор бронирования не может быть пустым")
+    private Long bookingId;
+
+    @NotNull(message = "Решение по бронированию не может быть пустым")
+    private Boolean approved;
+}
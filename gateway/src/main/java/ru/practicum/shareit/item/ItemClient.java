@@ -9,6 +9,9 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.comment.CommentItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -30,6 +33,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> saveItems(Long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -38,8 +45,33 @@ public class ItemClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItems(String searchText) {
-        return get("/search?text={text}", null, Map.of("text", searchText));
+    public ResponseEntity<Object> searchItems(String searchText, String cursor, int size,
+                                              LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", searchText);
+        parameters.put("size", size);
+        StringBuilder path = new StringBuilder("/search?text={text}&size={size}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path.append("&cursor={cursor}");
+        }
+        if (start != null) {
+            parameters.put("start", start.toString());
+            path.append("&start={start}");
+        }
+        if (end != null) {
+            parameters.put("end", end.toString());
+            path.append("&end={end}");
+        }
+        return get(path.toString(), null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentItemRequestDto commentDto) {
@@ -1,8 +1,14 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.ConvertGroup;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +17,9 @@ import ru.practicum.shareit.intf.Create;
 import ru.practicum.shareit.intf.Update;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -38,6 +47,15 @@ public class ItemController {
         return itemClient.saveItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> saveItems(
+            @RequestHeader(USER_ID) long userId,
+            @RequestBody @NotEmpty @Size(max = 100)
+            List<@Valid @ConvertGroup(to = Create.class) ItemDto> itemDtos) {
+        log.info("GATEWAY: Пакетное добавление {} предметов пользователем с ID: {}", itemDtos.size(), userId);
+        return itemClient.saveItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(
             @RequestHeader(USER_ID) long userId,
@@ -56,9 +74,25 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(
-            @RequestParam("text") String searchText) {
-        log.info("GATEWAY: Поиск предметов по тексту: {}", searchText);
-        return itemClient.searchItems(searchText);
+            @RequestParam("text") String searchText,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Positive @Max(100) @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("GATEWAY: Поиск предметов по тексту: {}, cursor={}, size={}, start={}, end={}",
+                searchText, cursor, size, start, end);
+        return itemClient.searchItems(searchText, cursor, size, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GATEWAY: Получение свободных интервалов предмета {} с {} по {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
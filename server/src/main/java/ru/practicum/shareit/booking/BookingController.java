@@ -3,12 +3,19 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingState;
 
 import java.util.List;
 
+import static ru.practicum.shareit.item.ItemController.NEXT_CURSOR;
 import static ru.practicum.shareit.item.ItemController.USER_ID;
 
 @RestController
@@ -21,7 +28,7 @@ public class BookingController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Booking createBooking(
+    public BookingResponseDto createBooking(
             @RequestHeader(USER_ID) long userId,
             @RequestBody BookingDto bookingDto
                                 ) {
@@ -29,9 +36,19 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDto);
     }
 
+    @PatchMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingDecisionResult> setBookingApprovals(
+            @RequestHeader(USER_ID) long userId,
+            @RequestBody List<BookingDecisionDto> decisions
+                                                          ) {
+        log.info("Received request to decide {} bookings for user with ID: {}", decisions.size(), userId);
+        return bookingService.setBookingApprovals(userId, decisions);
+    }
+
     @PatchMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
-    public Booking setBookingApproval(
+    public BookingResponseDto setBookingApproval(
             @RequestHeader(USER_ID) long userId,
             @PathVariable              long bookingId,
             @RequestParam("approved") boolean approved
@@ -42,7 +59,7 @@ public class BookingController {
 
     @GetMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
-    public Booking getBookingByIdAndBookerOrOwner(
+    public BookingResponseDto getBookingByIdAndBookerOrOwner(
             @PathVariable              long bookingId,
             @RequestHeader(USER_ID)    long userId
                                                  ) {
@@ -51,31 +68,65 @@ public class BookingController {
     }
 
     @GetMapping("/")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Booking> findBookingsByBookerId(
-            @RequestHeader(USER_ID) long userId
+    public ResponseEntity<List<BookingResponseDto>> findBookingsByBookerId(
+            @RequestHeader(USER_ID) long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size
                                                ) {
-        log.info("Received request to get bookings by booker with ID: {}", userId);
-        return bookingService.findBookingsByBookerId(userId);
+        log.info("Received request to get bookings by booker with ID: {}, cursor: {}, size: {}", userId, cursor, size);
+        return toResponse(bookingService.findBookings(userId, BookingRole.BOOKER, BookingState.ALL.name(), cursor, 0,
+                size));
     }
 
     @GetMapping("/owner")
-    @ResponseStatus(HttpStatus.OK)
-    public List<Booking> findBookingsByStateAndOwnerId(
+    public ResponseEntity<List<BookingResponseDto>> findBookingsByStateAndOwnerId(
             @RequestHeader(USER_ID)        long userId,
-            @RequestParam(value = "state", required = false) String state
+            @RequestParam(value = "state", required = false) String state,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size
                                                       ) {
-        log.info("Received request to get bookings by owner with ID: {} and state: {}", userId, state);
-        return bookingService.findBookingsByStateAndOwnerId(userId, state);
+        log.info("Received request to get bookings by owner with ID: {} and state: {}, cursor: {}, from: {}, size: {}",
+                userId, state, cursor, from, size);
+        return toResponse(bookingService.findBookings(userId, BookingRole.OWNER, state, cursor, from, size));
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Booking> findBookingsByStateAndBookerId(
+    public ResponseEntity<List<BookingResponseDto>> findBookingsByStateAndBookerId(
             @RequestHeader(USER_ID)        long userId,
-            @RequestParam(value = "state", required = false) String state
+            @RequestParam(value = "state", required = false) String state,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "from", defaultValue = "0") int from,
+            @RequestParam(value = "size", defaultValue = "10") int size
                                                        ) {
-        log.info("Received request to get bookings by booker with ID: {} and state: {}", userId, state);
-        return bookingService.findBookingsByStateAndBookerId(userId, state);
+        log.info("Received request to get bookings by booker with ID: {} and state: {}, cursor: {}, from: {}, size: {}",
+                userId, state, cursor, from, size);
+        return toResponse(bookingService.findBookings(userId, BookingRole.BOOKER, state, cursor, from, size));
+    }
+
+    @GetMapping("/counts")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingCountsDto countBookerBookings(
+            @RequestHeader(USER_ID) long userId
+                                               ) {
+        log.info("Received request to count bookings by booker with ID: {}", userId);
+        return bookingService.countBookings(userId, BookingRole.BOOKER);
+    }
+
+    @GetMapping("/owner/counts")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingCountsDto countOwnerBookings(
+            @RequestHeader(USER_ID) long userId
+                                              ) {
+        log.info("Received request to count bookings by owner with ID: {}", userId);
+        return bookingService.countBookings(userId, BookingRole.OWNER);
+    }
+
+    private static ResponseEntity<List<BookingResponseDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
-}
\ No newline at end of file
+}
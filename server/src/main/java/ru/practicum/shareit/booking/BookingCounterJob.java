@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves the booking counter clock forward. booking_counters count the current, past and future bookings
+ * as of booking_counter_clock.counted_at; each run shifts the bookings that started or ended since then
+ * between those columns and sets the clock to now, in one transaction. Runs on other server nodes wait
+ * for the clock lock and then find little or nothing left to move.
+ */
+@Component
+@Slf4j
+public class BookingCounterJob {
+
+    private final BookingRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final Counter moved;
+
+    public BookingCounterJob(BookingRepository repository,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.booking.counters.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+
+        moved = Counter.builder("shareit.booking.counters.moved")
+                .description("Booking counter rows updated because bookings started or ended")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.counters.delay:PT1M}",
+            initialDelayString = "${shareit.booking.counters.delay:PT1M}")
+    public void run() {
+        if (enabled) {
+            moveClock(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Counts the bookings that started or ended after the clock and at or before {@code now}, then sets
+     * the clock to {@code now}. A clock already past {@code now} is left as it is.
+     *
+     * @return the number of counter rows updated
+     */
+    public int moveClock(LocalDateTime now) {
+        int count = transactionTemplate.execute(status -> {
+            LocalDateTime countedAt = repository.lockCounterClock();
+            if (!now.isAfter(countedAt)) {
+                return 0;
+            }
+            int updated = repository.countTimeTransitions(countedAt, now);
+            repository.moveCounterClock(now);
+            return updated;
+        });
+        moved.increment(count);
+        if (count > 0) {
+            log.debug("Booking counter clock moved to {}, {} counter rows updated", now, count);
+        }
+        return count;
+    }
+}
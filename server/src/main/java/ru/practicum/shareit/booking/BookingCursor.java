@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a booking list ordered by (start, id) descending: the next page starts
+ * right after the booking with this start and id.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+
+    private final LocalDateTime start;
+
+    private final long id;
+
+    public static BookingCursor of(BookingResponseDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for the first page
+     */
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(',');
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid booking cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + "," + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.DecidedBookingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves waiting bookings whose start has passed to {@link BookingStatus#EXPIRED}, so they stop showing up
+ * in waiting lists and stop holding their interval. Each batch is its own transaction; batches taken by
+ * other server nodes are skipped, so the job can run on every node at once.
+ */
+@Component
+@Slf4j
+public class BookingExpiryJob {
+
+    private final BookingRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Counter expired;
+    private final Timer batches;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public BookingExpiryJob(BookingRepository repository,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking.expiry.enabled:true}") boolean enabled,
+                            @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                            @Value("${shareit.booking.expiry.max-batches:20}") int maxBatches) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+
+        expired = Counter.builder("shareit.booking.expiry.expired")
+                .description("Waiting bookings expired because their start passed undecided")
+                .register(meterRegistry);
+        batches = Timer.builder("shareit.booking.expiry.batches")
+                .description("Time spent expiring one batch of waiting bookings")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.expiry.backlog", backlog, AtomicLong::get)
+                .description("Waiting bookings past their start left after the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.delay:PT1M}",
+            initialDelayString = "${shareit.booking.expiry.delay:PT1M}")
+    public void run() {
+        if (enabled) {
+            expireStaleBookings(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Expires waiting bookings that started at or before {@code now}, batch by batch, until a batch
+     * comes back short or {@code max-batches} have run.
+     *
+     * @return the number of bookings expired
+     */
+    public int expireStaleBookings(LocalDateTime now) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int count = batches.record(() -> transactionTemplate.execute(status -> expireBatch(now)));
+            expired.increment(count);
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+
+        backlog.set(repository.countByStatusAndStartLessThanEqual(BookingStatus.WAITING, now));
+        if (total > 0) {
+            log.info("Expired {} waiting bookings that started before {}, {} left", total, now, backlog.get());
+        }
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<DecidedBookingView> bookings = repository.lockExpiredWaitingBookings(now, batchSize);
+        if (!bookings.isEmpty()) {
+            List<Long> bookingIds = bookings.stream().map(DecidedBookingView::getId).toList();
+            repository.updateStatuses(bookingIds, BookingStatus.EXPIRED);
+            repository.countStatusChange(bookingIds, BookingStatus.WAITING.name());
+        }
+        // listeners drop the cached calendars once the batch commits
+        bookings.forEach(booking -> eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(),
+                booking.getItemId(), BookingStatus.EXPIRED)));
+        return bookings.size();
+    }
+}
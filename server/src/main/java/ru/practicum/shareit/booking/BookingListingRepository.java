@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingListingRepository {
+
+    /**
+     * Bookings of the user in the given role and state, newest start first, in a single statement.
+     *
+     * @param after  the last booking of the previous page, or {@code null} to start from the top
+     * @param offset rows to skip before the page; only meaningful without {@code after}
+     */
+    List<BookingResponseDto> findBookings(BookingRole role, long userId, BookingState state, LocalDateTime now,
+                                          BookingCursor after, int offset, int limit);
+}
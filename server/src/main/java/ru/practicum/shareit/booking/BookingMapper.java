@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 
 @Component
@@ -21,4 +22,19 @@ public class BookingMapper {
         bookingDto.setStatus(booking.getStatus());
         return bookingDto;
     }
+
+    public static BookingDto mapViewToBookingDto(ItemBookingView booking) {
+        if (booking == null) {
+            return null;
+        }
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(booking.getId());
+        bookingDto.setStart(booking.getStart());
+        bookingDto.setEnd(booking.getEnd());
+        bookingDto.setBookerId(booking.getBookerId());
+        bookingDto.setItemId(booking.getItemId());
+        bookingDto.setStatus(booking.getStatus());
+        return bookingDto;
+    }
 }
\ No newline at end of file
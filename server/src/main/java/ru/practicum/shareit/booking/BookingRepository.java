@@ -1,20 +1,61 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookedPeriodView;
+import ru.practicum.shareit.booking.dto.BookingCountsView;
+import ru.practicum.shareit.booking.dto.BookingMarkDriftView;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusView;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingTargetView;
+import ru.practicum.shareit.booking.dto.DecidedBookingView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingListingRepository {
 
-    List<Booking> findBookingsByItemOwner(long ownerId, Sort sort);
+    /**
+     * Last and next approved booking of each item {@code t.item_id}, ordered as in
+     * {@link #findLastAndNextApprovedBookings}; both are seeks on (item_id, status, start_date).
+     */
+    String LAST_AND_NEXT_APPROVED = """
+            LEFT JOIN LATERAL (SELECT b.id FROM bookings b
+                               WHERE b.item_id = t.item_id AND b.status = 'APPROVED' AND b.start_date < :now
+                               ORDER BY b.start_date DESC, b.id
+                               LIMIT 1) l ON true
+            LEFT JOIN LATERAL (SELECT b.id, b.start_date FROM bookings b
+                               WHERE b.item_id = t.item_id AND b.status = 'APPROVED' AND b.start_date > :now
+                               ORDER BY b.start_date, b.id
+                               LIMIT 1) n ON true
+            """;
 
-    boolean existsBookingsByBookerIdOrItemOwner(long bookerId, long ownerId);
+    /**
+     * Counts of bookings {@code x} by listing state as of {@code k.counted_at}, in booking_counters column order.
+     */
+    String BOOKING_COUNTS = """
+            SELECT COUNT(*) AS total,
+                   COUNT(*) FILTER (WHERE x.start_date <= k.counted_at AND x.end_date > k.counted_at) AS current,
+                   COUNT(*) FILTER (WHERE x.end_date <= k.counted_at) AS past,
+                   COUNT(*) FILTER (WHERE x.start_date > k.counted_at) AS future,
+                   COUNT(*) FILTER (WHERE x.status = 'WAITING') AS waiting,
+                   COUNT(*) FILTER (WHERE x.status = 'REJECTED') AS rejected
+            FROM bookings x
+            """;
 
-    List<Booking> findBookingsByBookerIdOrItemOwner(long bookerId, long ownerId, Sort sort);
+    /**
+     * Booker and owner of each booking {@code b}, as (user_id, role) rows of booking_counters.
+     */
+    String BOOKING_USERS = """
+            CROSS JOIN LATERAL (VALUES (b.booker_id, 'BOOKER'), (b.owner_id, 'OWNER')) u(user_id, role)
+            """;
 
     boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(
             Long itemId,
@@ -23,53 +64,312 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             LocalDateTime localDateTime
                                                           );
 
-    Booking findFirstBookingByItemIdAndStatusAndStartIsBefore(
-            long itemId,
-            BookingStatus bookingStatus,
-            LocalDateTime now,
-            Sort start
-                                                             );
-
-    Booking findFirstBookingByItemIdAndStatusAndStartIsAfter(
-            long itemId,
-            BookingStatus bookingStatus,
-            LocalDateTime now,
-            Sort start
-                                                            );
-
-    List<Booking> findBookingsByBookerIdOrderByStartDesc(long userId);
-
-    List<Booking> findBookingsByBookerIdAndStatus(
-            long userId,
-            BookingStatus bookingStatus,
-            Sort start
-                                                 );
-
-    List<Booking> findBookingsByItemOwnerAndStatus(
-            long userId,
-            BookingStatus bookingStatus,
-            Sort start
-                                                  );
-
-    List<Booking> findBookingsByItemOwnerAndStartBeforeAndEndAfter(
-            long userId,
-            LocalDateTime now,
-            LocalDateTime now1
-                                                                  );
-
-    List<Booking> findBookingsByBookerIdAndStartBeforeAndEndAfter(
-            long userId,
-            LocalDateTime now,
-            LocalDateTime now1
-                                                                 );
-
-    List<Booking> findBookingsByItemOwnerAndEndBeforeOrderByEndDesc(
-            long userId,
-            LocalDateTime now
-                                                                   );
-
-    List<Booking> findBookingsByBookerIdAndEndBeforeOrderByEndDesc(
-            long userId,
-            LocalDateTime now
-                                                                  );
-}
\ No newline at end of file
+    @Query(value = """
+            SELECT r.id, r.start_date AS start, r.end_date AS "end", r.item_id AS itemId,
+                   r.booker_id AS bookerId, r.status, r.is_last AS last
+            FROM (SELECT b.*,
+                         b.start_date < :now AS is_last,
+                         ROW_NUMBER() OVER (
+                                 PARTITION BY b.item_id, b.start_date < :now
+                                 ORDER BY CASE WHEN b.start_date < :now THEN b.start_date END DESC,
+                                          b.start_date, b.id) AS rn
+                  FROM bookings b
+                  WHERE b.item_id IN (:itemIds)
+                    AND b.status = 'APPROVED'
+                    AND b.start_date <> :now) r
+            WHERE r.rn = 1
+            """, nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedBookings(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now
+                                                          );
+
+    /**
+     * Last and next approved bookings of the items whose marks are still current at {@code now}, read by
+     * primary key. Such an item with neither booking comes back as a single row without a booking id;
+     * items missing from the result have no current marks.
+     */
+    @Query(value = """
+            SELECT m.item_id AS itemId, b.id, b.start_date AS start, b.end_date AS "end",
+                   b.booker_id AS bookerId, b.status, b.id = m.last_booking_id AS last
+            FROM item_booking_marks m
+            LEFT JOIN bookings b ON b.id IN (m.last_booking_id, m.next_booking_id)
+            WHERE m.item_id IN (:itemIds)
+              AND (m.next_start IS NULL OR m.next_start > :now)
+            """, nativeQuery = true)
+    List<ItemBookingView> findMarkedBookings(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now
+                                            );
+
+    /**
+     * Creates the marks of the items if missing and locks them. A refresh run after this in the same
+     * transaction waits for concurrent refreshes of the items and sees the approvals they committed.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO item_booking_marks (item_id)
+            SELECT i.id FROM items i WHERE i.id IN (:itemIds) ORDER BY i.id
+            ON CONFLICT (item_id) DO UPDATE SET item_id = EXCLUDED.item_id
+            """, nativeQuery = true)
+    int lockBookingMarks(@Param("itemIds") Collection<Long> itemIds);
+
+    @Modifying
+    @Query(value = """
+            UPDATE item_booking_marks m
+            SET last_booking_id = l.id, next_booking_id = n.id, next_start = n.start_date
+            FROM (SELECT s.item_id FROM item_booking_marks s WHERE s.item_id IN (:itemIds)) t
+            """ + LAST_AND_NEXT_APPROVED + """
+            WHERE m.item_id = t.item_id
+            """, nativeQuery = true)
+    int refreshBookingMarks(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Recomputes up to {@code limit} marks whose next booking started at or before {@code now}. Marks
+     * another transaction holds are skipped, so concurrent runs take disjoint batches.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE item_booking_marks m
+            SET last_booking_id = l.id, next_booking_id = n.id, next_start = n.start_date
+            FROM (SELECT s.item_id FROM item_booking_marks s
+                  WHERE s.next_start <= :now
+                  ORDER BY s.next_start
+                  LIMIT :limit
+                  FOR UPDATE SKIP LOCKED) t
+            """ + LAST_AND_NEXT_APPROVED + """
+            WHERE m.item_id = t.item_id
+            """, nativeQuery = true)
+    int advanceBookingMarks(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Items after {@code afterItemId} whose marks are missing or differ from the bookings at {@code now}.
+     */
+    @Query(value = """
+            SELECT t.item_id AS itemId, m.item_id IS NULL AS missing
+            FROM (SELECT i.id AS item_id FROM items i WHERE i.id > :afterItemId) t
+            LEFT JOIN item_booking_marks m ON m.item_id = t.item_id
+            """ + LAST_AND_NEXT_APPROVED + """
+            WHERE m.item_id IS NULL
+               OR m.last_booking_id IS DISTINCT FROM l.id
+               OR m.next_booking_id IS DISTINCT FROM n.id
+               OR m.next_start IS DISTINCT FROM n.start_date
+            ORDER BY t.item_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<BookingMarkDriftView> findBookingMarkDrift(
+            @Param("afterItemId") long afterItemId,
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit
+                                                   );
+
+    @Query(value = """
+            SELECT c.total, c.current, c.past, c.future, c.waiting, c.rejected
+            FROM booking_counters c
+            WHERE c.user_id = :userId AND c.role = :role
+            """, nativeQuery = true)
+    Optional<BookingCountsView> findCounts(@Param("userId") long userId, @Param("role") String role);
+
+    @Query(value = "SELECT a.* FROM (SELECT CAST(:now AS TIMESTAMP) AS counted_at) k CROSS JOIN LATERAL ("
+            + BOOKING_COUNTS + " WHERE x.booker_id = :userId) a", nativeQuery = true)
+    BookingCountsView countBookerBookings(@Param("userId") long userId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT a.* FROM (SELECT CAST(:now AS TIMESTAMP) AS counted_at) k CROSS JOIN LATERAL ("
+            + BOOKING_COUNTS + " WHERE x.owner_id = :userId) a", nativeQuery = true)
+    BookingCountsView countOwnerBookings(@Param("userId") long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves the bookings, all previously in status {@code from}, to their current status in the counters
+     * of their bookers and owners. Rows are locked in key order, so concurrent updates cannot deadlock.
+     */
+    @Modifying
+    @Query(value = """
+            WITH d AS (SELECT u.user_id, u.role,
+                              COUNT(*) FILTER (WHERE b.status = 'WAITING')
+                                  - CASE WHEN :from = 'WAITING' THEN COUNT(*) ELSE 0 END AS waiting,
+                              COUNT(*) FILTER (WHERE b.status = 'REJECTED')
+                                  - CASE WHEN :from = 'REJECTED' THEN COUNT(*) ELSE 0 END AS rejected
+                       FROM bookings b
+                       """ + BOOKING_USERS + """
+                       WHERE b.id IN (:bookingIds)
+                       GROUP BY u.user_id, u.role),
+                 locked AS (SELECT c.user_id, c.role FROM booking_counters c
+                            JOIN d ON d.user_id = c.user_id AND d.role = c.role
+                            ORDER BY c.user_id, c.role
+                            FOR UPDATE OF c)
+            UPDATE booking_counters c
+            SET waiting = c.waiting + d.waiting, rejected = c.rejected + d.rejected
+            FROM d JOIN locked l ON l.user_id = d.user_id AND l.role = d.role
+            WHERE c.user_id = d.user_id AND c.role = d.role
+            """, nativeQuery = true)
+    int countStatusChange(@Param("bookingIds") Collection<Long> bookingIds, @Param("from") String from);
+
+    @Query(value = "SELECT c.counted_at FROM booking_counter_clock c FOR UPDATE", nativeQuery = true)
+    LocalDateTime lockCounterClock();
+
+    /**
+     * Moves bookings that started in ({@code from}, {@code to}] from future to current and those that
+     * ended in it from current to past, in the counters of their bookers and owners.
+     */
+    @Modifying
+    @Query(value = """
+            WITH d AS (SELECT u.user_id, u.role,
+                              COUNT(*) FILTER (WHERE b.start_date > :from AND b.start_date <= :to) AS started,
+                              COUNT(*) FILTER (WHERE b.end_date > :from AND b.end_date <= :to) AS ended
+                       FROM bookings b
+                       """ + BOOKING_USERS + """
+                       WHERE (b.start_date > :from AND b.start_date <= :to)
+                          OR (b.end_date > :from AND b.end_date <= :to)
+                       GROUP BY u.user_id, u.role),
+                 locked AS (SELECT c.user_id, c.role FROM booking_counters c
+                            JOIN d ON d.user_id = c.user_id AND d.role = c.role
+                            ORDER BY c.user_id, c.role
+                            FOR UPDATE OF c)
+            UPDATE booking_counters c
+            SET future = c.future - d.started,
+                current = c.current + d.started - d.ended,
+                past = c.past + d.ended
+            FROM d JOIN locked l ON l.user_id = d.user_id AND l.role = d.role
+            WHERE c.user_id = d.user_id AND c.role = d.role
+            """, nativeQuery = true)
+    int countTimeTransitions(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "UPDATE booking_counter_clock SET counted_at = :to", nativeQuery = true)
+    int moveCounterClock(@Param("to") LocalDateTime to);
+
+    /**
+     * Moves the booking from {@code expected} to {@code status} if it belongs to an item of the owner.
+     * The check and the write are one statement, so concurrent decisions cannot both succeed.
+     *
+     * @return 1 if the booking was updated, 0 if any condition did not hold
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Booking b SET b.status = :status
+            WHERE b.id = :bookingId
+              AND b.status = :expected
+              AND b.owner = :ownerId
+            """)
+    int updateStatusIfOwner(
+            @Param("bookingId") long bookingId,
+            @Param("ownerId") long ownerId,
+            @Param("expected") BookingStatus expected,
+            @Param("status") BookingStatus status
+                           );
+
+    /**
+     * Locks the owner's waiting bookings among {@code bookingIds} for a batch decision. Rows are locked
+     * in ID order, so two overlapping batches wait for each other instead of deadlocking, and a booking
+     * decided meanwhile by another transaction drops out once its lock is released.
+     */
+    @Query(value = """
+            SELECT b.id AS id, b.item_id AS itemId
+            FROM bookings b
+            WHERE b.id IN (:bookingIds)
+              AND b.status = 'WAITING'
+              AND b.owner_id = :ownerId
+            ORDER BY b.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<DecidedBookingView> lockWaitingBookings(
+            @Param("bookingIds") Collection<Long> bookingIds,
+            @Param("ownerId") long ownerId
+                                                );
+
+    /**
+     * Locks up to {@code limit} waiting bookings that started at or before {@code now}. Rows another
+     * transaction holds are skipped rather than waited for, so concurrent runs take disjoint batches.
+     */
+    @Query(value = """
+            SELECT b.id AS id, b.item_id AS itemId
+            FROM bookings b
+            WHERE b.status = 'WAITING' AND b.start_date <= :now
+            ORDER BY b.start_date
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<DecidedBookingView> lockExpiredWaitingBookings(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Sets the status of bookings locked by {@link #lockWaitingBookings} or {@link #lockExpiredWaitingBookings}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :bookingIds")
+    int updateStatuses(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") BookingStatus status);
+
+    long countByStatusAndStartLessThanEqual(BookingStatus status, LocalDateTime now);
+
+    @Query("""
+            SELECT b.id AS id, b.owner AS ownerId, b.status AS status
+            FROM Booking b
+            WHERE b.id IN :bookingIds
+            """)
+    List<BookingOwnerStatusView> findOwnerStatuses(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(
+                   b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name)
+            FROM Booking b JOIN b.item i JOIN b.booker u
+            WHERE b.id = :bookingId
+            """)
+    Optional<BookingResponseDto> findResponseById(@Param("bookingId") long bookingId);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(
+                   b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name)
+            FROM Booking b JOIN b.item i JOIN b.booker u
+            WHERE b.id = :bookingId AND (b.booker.id = :userId OR b.owner = :userId)
+            """)
+    Optional<BookingResponseDto> findResponseByIdForUser(@Param("bookingId") long bookingId,
+                                                         @Param("userId") long userId);
+
+    @Query(value = """
+            SELECT u.id IS NOT NULL AS bookerExists,
+                   u.name AS bookerName,
+                   i.id IS NOT NULL AS itemExists,
+                   i.is_available AS available,
+                   i.owner_id AS ownerId,
+                   i.name AS itemName
+            FROM (SELECT CAST(:itemId AS BIGINT) AS id) target
+            LEFT JOIN items i ON i.id = target.id
+            LEFT JOIN users u ON u.id = CAST(:bookerId AS BIGINT)
+            """, nativeQuery = true)
+    BookingTargetView findBookingTarget(
+            @Param("itemId") long itemId,
+            @Param("bookerId") long bookerId
+                                       );
+
+    /**
+     * Waiting and approved periods of the item overlapping [from, to), served by the GiST index
+     * behind the bookings_no_overlap constraint.
+     */
+    @Query(value = """
+            SELECT b.start_date AS start, b.end_date AS "end"
+            FROM bookings b
+            WHERE b.item_id = :itemId
+              AND b.status IN ('WAITING', 'APPROVED')
+              AND tsrange(b.start_date, b.end_date) && tsrange(:from, :to)
+            ORDER BY b.start_date
+            """, nativeQuery = true)
+    List<BookedPeriodView> findBookedPeriods(
+            @Param("itemId") long itemId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+                                            );
+
+    @Query("""
+            SELECT DISTINCT b.item.id
+            FROM Booking b
+            WHERE b.item.id IN :itemIds
+              AND b.status IN :statuses
+              AND b.start < :end
+              AND b.end > :start
+            """)
+    List<Long> findItemIdsBookedBetween(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+                                       );
+}
@@ -1,37 +1,25 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import java.util.List;
 
 public interface BookingService {
 
-    Booking setBookingApproval(long userId, long bookingId, boolean approved);
+    BookingResponseDto setBookingApproval(long userId, long bookingId, boolean approved);
 
-    Booking createBooking(long userId, BookingDto bookingDto);
+    List<BookingDecisionResult> setBookingApprovals(long userId, List<BookingDecisionDto> decisions);
 
-    Booking getBookingByIdAndBookerOrOwner(long bookingId, long userId);
+    BookingResponseDto createBooking(long userId, BookingDto bookingDto);
 
-    Booking getBookingById(long bookingId);
+    BookingResponseDto getBookingByIdAndBookerOrOwner(long bookingId, long userId);
 
-    List<Booking> findBookingsByItemOwner(long userId);
+    BookingPage findBookings(long userId, BookingRole role, String state, String cursor, int from, int size);
 
-    List<Booking> findBookingsByBookerId(long userId);
-
-    boolean existsBookingByBookerIdOrItemOwner(long bookerId, long ownerId);
-
-    List<Booking> findBookingsByBookerIdOrItemOwner(long bookerId, long ownerId);
-
-    List<Booking> findBookingsByBookerIdAndStatusWaiting(long userId);
-
-    List<Booking> findBookingsByItemOwnerAndStatusWaiting(long userId);
-
-    List<Booking> findBookingsByItemOwnerAndStatusRejected(long userId);
-
-    List<Booking> findBookingsByBookerIdAndStatusRejected(long userId);
-
-    List<Booking> findBookingsByStateAndOwnerId(long userId, String state);
-
-    List<Booking> findBookingsByStateAndBookerId(long userId, String state);
-}
\ No newline at end of file
+    BookingCountsDto countBookings(long userId, BookingRole role);
+}
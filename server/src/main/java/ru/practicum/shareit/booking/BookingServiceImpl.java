@@ -2,19 +2,41 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingCountsView;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusView;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingTargetView;
+import ru.practicum.shareit.booking.dto.DecidedBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 @Service
 @Transactional(readOnly = true)
@@ -22,17 +44,131 @@ import java.util.List;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final String NO_OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingRepository repository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
-    public Booking setBookingApproval(long userId, long bookingId, boolean approved) {
+    public BookingResponseDto setBookingApproval(long userId, long bookingId, boolean approved) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // the usual case, a waiting booking of the owner's item, is decided by a single conditional update
+        BookingStatus previous = BookingStatus.WAITING;
+        if (repository.updateStatusIfOwner(bookingId, userId, BookingStatus.WAITING, status) == 0) {
+            previous = decideNonWaitingBooking(userId, bookingId, status);
+        }
+        if (previous != status) {
+            repository.countStatusChange(List.of(bookingId), previous.name());
+        }
+
+        BookingResponseDto booking = repository.findResponseById(bookingId).orElseThrow(()
+                -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            refreshBookingMarks(List.of(booking.getItem().getId()));
+        }
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStatus()));
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionResult> setBookingApprovals(long userId, List<BookingDecisionDto> decisions) {
+        if (decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " decisions");
+        }
+
+        Map<Long, BookingStatus> requested = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new ValidationException("Each decision needs a booking ID and an approved flag");
+            }
+            BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            if (requested.put(decision.getBookingId(), status) != null) {
+                throw new ValidationException("Booking with ID " + decision.getBookingId() + " is listed twice.");
+            }
+        }
+
+        // one locked read and update per target status; only waiting bookings of the owner's items change
+        Map<Long, BookingDecisionResult> results = new HashMap<>();
+        List<Long> decidedIds = new ArrayList<>();
+        Set<Long> approvedItemIds = new TreeSet<>();
+        for (BookingStatus status : List.of(BookingStatus.APPROVED, BookingStatus.REJECTED)) {
+            List<Long> bookingIds = requested.entrySet().stream()
+                    .filter(entry -> entry.getValue() == status)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (bookingIds.isEmpty()) {
+                continue;
+            }
+            List<DecidedBookingView> decidedBookings = repository.lockWaitingBookings(bookingIds, userId);
+            if (decidedBookings.isEmpty()) {
+                continue;
+            }
+            repository.updateStatuses(decidedBookings.stream().map(DecidedBookingView::getId).toList(), status);
+            for (DecidedBookingView decided : decidedBookings) {
+                results.put(decided.getId(),
+                        new BookingDecisionResult(decided.getId(), BookingDecisionOutcome.APPLIED, status));
+                decidedIds.add(decided.getId());
+                if (status == BookingStatus.APPROVED) {
+                    approvedItemIds.add(decided.getItemId());
+                }
+                eventPublisher.publishEvent(new BookingStatusChangedEvent(decided.getId(), decided.getItemId(), status));
+            }
+        }
+
+        if (!decidedIds.isEmpty()) {
+            repository.countStatusChange(decidedIds, BookingStatus.WAITING.name());
+        }
+        if (!approvedItemIds.isEmpty()) {
+            refreshBookingMarks(approvedItemIds);
+        }
+
+        List<Long> skipped = requested.keySet().stream()
+                .filter(bookingId -> !results.containsKey(bookingId))
+                .toList();
+        if (!skipped.isEmpty()) {
+            for (BookingOwnerStatusView booking : repository.findOwnerStatuses(skipped)) {
+                results.put(booking.getId(), booking.getOwnerId() != userId
+                        ? new BookingDecisionResult(booking.getId(), BookingDecisionOutcome.NOT_OWNER, null)
+                        : new BookingDecisionResult(booking.getId(), BookingDecisionOutcome.ALREADY_DECIDED,
+                                booking.getStatus()));
+            }
+        }
+
+        return requested.keySet().stream()
+                .map(bookingId -> results.getOrDefault(bookingId,
+                        new BookingDecisionResult(bookingId, BookingDecisionOutcome.NOT_FOUND, null)))
+                .toList();
+    }
+
+    /**
+     * Recomputes the last/next approved booking of the items after an approval. Rejections and expiry
+     * only touch bookings that were never approved, so they leave the marks as they are.
+     */
+    private void refreshBookingMarks(Collection<Long> itemIds) {
+        repository.lockBookingMarks(itemIds);
+        repository.refreshBookingMarks(itemIds, LocalDateTime.now());
+    }
+
+    /**
+     * Explains why the conditional update did not apply, or applies it to a booking that had already
+     * been rejected. The update is still conditional on the status read here, so a concurrent decision
+     * made in between turns into a conflict rather than being overwritten.
+     *
+     * @return the status the booking had before the decision
+     */
+    private BookingStatus decideNonWaitingBooking(long userId, long bookingId, BookingStatus status) {
         Booking booking = repository.findById(bookingId).orElseThrow(()
                 -> new ResourceNotFoundException("Booking with ID " + bookingId + " is not found."));
 
-        if (booking.getItem().getOwner() != userId) {
+        if (booking.getOwner() != userId) {
             throw new ValidationException("User with ID " + userId + " is not the owner of the item.");
         }
 
@@ -40,18 +176,22 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking with ID " + bookingId + " has already been approved.");
         }
 
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        if (booking.getStatus() == BookingStatus.EXPIRED) {
+            throw new ValidationException("Booking with ID " + bookingId + " expired before it was decided.");
         }
 
-        return booking;
+        long itemId = booking.getItem().getId();
+        BookingStatus expected = booking.getStatus();
+        // approving a rejected booking takes its period back; bookings_no_overlap rejects a clash
+        if (translateOverlap(itemId, () -> repository.updateStatusIfOwner(bookingId, userId, expected, status)) == 0) {
+            throw new ConflictException("Booking with ID " + bookingId + " has been changed concurrently.");
+        }
+        return expected;
     }
 
     @Override
     @Transactional
-    public Booking createBooking(long userId, BookingDto bookingDto) {
+    public BookingResponseDto createBooking(long userId, BookingDto bookingDto) {
         if (bookingDto.getStart() == null) {
             throw new ValidationException("Booking start time cannot be null");
         }
@@ -60,15 +200,16 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking end time cannot be null");
         }
 
-        if (!userRepository.existsById(userId)) {
+        BookingTargetView target = repository.findBookingTarget(bookingDto.getItemId(), userId);
+        if (!target.getBookerExists()) {
             throw new ResourceNotFoundException("User not found with ID: " + userId);
         }
 
-        if (!itemRepository.existsById(bookingDto.getItemId())) {
-            throw new ResourceNotFoundException("Item not found with ID: " + userId);
+        if (!target.getItemExists()) {
+            throw new ResourceNotFoundException("Item not found with ID: " + bookingDto.getItemId());
         }
 
-        if (itemRepository.getById(bookingDto.getItemId()).getAvailable() == false) {
+        if (!target.getAvailable()) {
             throw new ValidationException("The item is not available for booking.");
         }
 
@@ -84,182 +225,103 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking start time cannot be equal to booking end time");
         }
 
-        long ownerId = itemRepository.getReferenceById(bookingDto.getItemId()).getOwner();
-        if (userId == ownerId) {
+        if (userId == target.getOwnerId()) {
             throw new ResourceNotFoundException("User cannot book own item");
         }
 
+        // references only: the row above already proved both exist, so no further selects are needed
         Booking booking = new Booking();
         booking.setStart(bookingDto.getStart());
         booking.setEnd(bookingDto.getEnd());
         booking.setBooker(userRepository.getReferenceById(userId));
         booking.setItem(itemRepository.getReferenceById(bookingDto.getItemId()));
+        booking.setOwner(target.getOwnerId());
         booking.setStatus(BookingStatus.WAITING);
-        repository.save(booking);
-        return booking;
-    }
+        // the bookings_count_created trigger adds it to the booker's and owner's counters
+        saveAndFlush(booking);
 
-    @Override
-    public Booking getBookingByIdAndBookerOrOwner(long bookingId, long userId) {
-        Booking booking = getBookingById(bookingId);
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(), bookingDto.getItemId(),
+                booking.getStatus()));
+        return new BookingResponseDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                bookingDto.getItemId(), target.getItemName(), userId, target.getBookerName());
+    }
 
-        if (booking.getItem().getOwner() == userId) {
-            return booking;
-        }
+    /**
+     * Flushes the booking right away, so that a clash with the bookings_no_overlap exclusion
+     * constraint surfaces here and not at commit.
+     * <p>
+     * The constraint is the overlap check: a GiST probe over the item's active intervals, O(log n)
+     * per insert, and concurrent inserts of clashing bookings serialize on it, so exactly one of them
+     * commits. No in-memory interval index is kept in front of it: each server node would hold its own
+     * copy, and a copy behind bookings written on other nodes or by the expiry job answers with false
+     * conflicts.
+     */
+    private void saveAndFlush(Booking booking) {
+        translateOverlap(booking.getItem().getId(), () -> repository.saveAndFlush(booking));
+    }
 
-        if (booking.getBooker().getId() == userId) {
-            return booking;
+    private <T> T translateOverlap(long itemId, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            // Hibernate does not extract constraint names from batched exclusion violations
+            if (e.getMostSpecificCause() instanceof SQLException cause
+                    && EXCLUSION_VIOLATION.equals(cause.getSQLState())
+                    && String.valueOf(cause.getMessage()).contains(NO_OVERLAP_CONSTRAINT)) {
+                throw new ConflictException("Item with ID " + itemId
+                        + " is already booked for an overlapping period.");
+            }
+            throw e;
         }
-
-        throw new ResourceNotFoundException("Booking not found for user with ID: " + userId);
     }
 
     @Override
-    public Booking getBookingById(long bookingId) {
-        return repository.findById(bookingId).orElseThrow(()
-                -> new ResourceNotFoundException("Booking not found with ID: " + bookingId));
+    public BookingResponseDto getBookingByIdAndBookerOrOwner(long bookingId, long userId) {
+        return repository.findResponseByIdForUser(bookingId, userId).orElseThrow(() -> repository.existsById(bookingId)
+                ? new ResourceNotFoundException("Booking not found for user with ID: " + userId)
+                : new ResourceNotFoundException("Booking not found with ID: " + bookingId));
     }
 
     @Override
-    public List<Booking> findBookingsByBookerId(long userId) {
-        List<Booking> bookings = repository.findBookingsByBookerIdOrderByStartDesc(userId);
-
-        if (bookings.isEmpty()) {
-            throw new ResourceNotFoundException("Booking not found with Booker ID: " + userId);
+    public BookingPage findBookings(long userId, BookingRole role, String state, String cursor, int from, int size) {
+        if (from < 0) {
+            throw new ValidationException("Page cannot start before the first booking");
         }
-        return bookings;
-    }
-
-    @Override
-    public List<Booking> findBookingsByStateAndOwnerId(long userId, String state) {
-        if (!existsBookingByBookerIdOrItemOwner(userId, userId)) {
-            throw new ResourceNotFoundException("No bookings found for user with ID: " + userId);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
-
-        if (state != null) {
-            switch (state) {
-                case "ALL":
-                    log.info("Retrieving all bookings for owner with ID: {}", userId);
-                    return findBookingsByItemOwner(userId);
-                case "FUTURE":
-                    log.info("Retrieving future bookings for owner with ID: {}", userId);
-                    return findBookingsByItemOwner(userId);
-                case "WAITING":
-                    log.info("Retrieving waiting bookings for owner with ID: {}", userId);
-                    return findBookingsByItemOwnerAndStatusWaiting(userId);
-                case "REJECTED":
-                    log.info("Retrieving rejected bookings for owner with ID: {}", userId);
-                    return findBookingsByItemOwnerAndStatusRejected(userId);
-                case "CURRENT":
-                    log.info("Retrieving current bookings for owner with ID: {}", userId);
-                    return findCurrentBookingsByOwnerId(userId);
-                case "PAST":
-                    log.info("Retrieving past bookings for owner with ID: {}", userId);
-                    return findPastBookingsByOwnerId(userId);
-                default:
-                    throw new ValidationException("Unknown state: " + state);
-            }
-        } else {
-            log.info("No state specified. Retrieving all bookings for owner with ID: {}", userId);
-            return findBookingsByBookerIdOrItemOwner(userId, userId);
+        BookingState bookingState = BookingState.from(state);
+        BookingCursor after = BookingCursor.decode(cursor);
+        log.info("Retrieving {} bookings for {} with ID: {}", bookingState, role, userId);
+
+        List<BookingResponseDto> bookings = repository.findBookings(role, userId, bookingState, LocalDateTime.now(), after,
+                after == null ? from : 0, size + 1);
+        // an empty page is a valid answer; only then is it worth telling an unknown user apart
+        if (bookings.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
         }
-    }
-
-    private List<Booking> findPastBookingsByOwnerId(long userId) {
-        return repository.findBookingsByItemOwnerAndEndBeforeOrderByEndDesc(userId, LocalDateTime.now());
-    }
-
-    private List<Booking> findPastBookingsByBookerId(long userId) {
-        return repository.findBookingsByBookerIdAndEndBeforeOrderByEndDesc(userId, LocalDateTime.now());
-    }
-
-    private List<Booking> findCurrentBookingsByOwnerId(long userId) {
-        return repository.findBookingsByItemOwnerAndStartBeforeAndEndAfter(userId, LocalDateTime.now(), LocalDateTime.now());
-    }
-
-    private List<Booking> findCurrentBookingsByBookerId(long userId) {
-        return repository.findBookingsByBookerIdAndStartBeforeAndEndAfter(userId, LocalDateTime.now(), LocalDateTime.now());
-    }
-
-    @Override
-    public List<Booking> findBookingsByStateAndBookerId(long userId, String state) {
-        if (state != null) {
-            switch (state) {
-                case "ALL":
-                    log.info("Retrieving all bookings for booker with ID: {}", userId);
-                    return findBookingsByBookerId(userId);
-                case "FUTURE":
-                    log.info("Retrieving future bookings for booker with ID: {}", userId);
-                    return findBookingsByBookerId(userId);
-                case "WAITING":
-                    log.info("Retrieving waiting bookings for booker with ID: {}", userId);
-                    return findBookingsByBookerIdAndStatusWaiting(userId);
-                case "REJECTED":
-                    log.info("Retrieving rejected bookings for booker with ID: {}", userId);
-                    return findBookingsByBookerIdAndStatusRejected(userId);
-                case "PAST":
-                    log.info("Retrieving past bookings for booker with ID: {}", userId);
-                    return findPastBookingsByBookerId(userId);
-                case "CURRENT":
-                    log.info("Retrieving current bookings for booker with ID: {}", userId);
-                    return findCurrentBookingsByBookerId(userId);
-                default:
-                    throw new ValidationException("Unknown state: " + state);
-            }
-        } else {
-            log.info("No state specified. Retrieving all bookings for booker with ID: {}", userId);
-            return findBookingsByBookerIdOrItemOwner(userId, userId);
+        if (bookings.size() <= size) {
+            return new BookingPage(bookings, null);
         }
-    }
 
-    @Override
-    public boolean existsBookingByBookerIdOrItemOwner(long bookerId, long ownerId) {
-        return repository.existsBookingsByBookerIdOrItemOwner(bookerId, ownerId);
+        List<BookingResponseDto> page = bookings.subList(0, size);
+        return new BookingPage(page, BookingCursor.of(page.get(size - 1)).encode());
     }
 
+    /**
+     * Reads the user's counters row. Time states are counted as of the counter clock, which
+     * {@link BookingCounterJob} keeps within a minute or so of now. A user gets a row with their first
+     * new booking; until then the few bookings they have are counted directly.
+     */
     @Override
-    public List<Booking> findBookingsByItemOwner(long userId) {
-        List<Booking> bookings = repository.findBookingsByItemOwner(userId,
-                Sort.by(Sort.Direction.DESC, "start"));
-        if (bookings.isEmpty()) {
-            throw new ResourceNotFoundException("Booking not found with Owner ID: " + userId);
+    public BookingCountsDto countBookings(long userId, BookingRole role) {
+        BookingCountsView counts = repository.findCounts(userId, role.name()).orElseGet(() -> role == BookingRole.OWNER
+                ? repository.countOwnerBookings(userId, LocalDateTime.now())
+                : repository.countBookerBookings(userId, LocalDateTime.now()));
+        if (counts.getTotal() == 0 && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
         }
-
-        return bookings;
-    }
-
-    @Override
-    public List<Booking> findBookingsByBookerIdOrItemOwner(long bookerId, long ownerId) {
-        List<Booking> bookings = repository.findBookingsByBookerIdOrItemOwner(bookerId, ownerId,
-                Sort.by(Sort.Direction.DESC, "start"));
-        return bookings;
-    }
-
-    @Override
-    public List<Booking> findBookingsByBookerIdAndStatusWaiting(long userId) {
-        List<Booking> bookings = repository.findBookingsByBookerIdAndStatus(userId, BookingStatus.WAITING,
-                Sort.by(Sort.Direction.DESC, "start"));
-        return bookings;
-    }
-
-    @Override
-    public List<Booking> findBookingsByItemOwnerAndStatusWaiting(long userId) {
-        List<Booking> bookings = repository.findBookingsByItemOwnerAndStatus(userId, BookingStatus.WAITING,
-                Sort.by(Sort.Direction.DESC, "start"));
-        return bookings;
-    }
-
-    @Override
-    public List<Booking> findBookingsByItemOwnerAndStatusRejected(long userId) {
-        List<Booking> bookings = repository.findBookingsByItemOwnerAndStatus(userId, BookingStatus.REJECTED,
-                Sort.by(Sort.Direction.DESC, "start"));
-        return bookings;
-    }
-
-    @Override
-    public List<Booking> findBookingsByBookerIdAndStatusRejected(long userId) {
-        List<Booking> bookings = repository.findBookingsByBookerIdAndStatus(userId, BookingStatus.REJECTED,
-                Sort.by(Sort.Direction.DESC, "start"));
-        return bookings;
+        return new BookingCountsDto(counts.getTotal(), counts.getCurrent(), counts.getPast(), counts.getFuture(),
+                counts.getWaiting(), counts.getRejected());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+@Getter
+@AllArgsConstructor
+public class BookingStatusChangedEvent {
+
+    private final long bookingId;
+
+    private final long itemId;
+
+    private final BookingStatus status;
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingMarkDriftView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps item_booking_marks, the materialized last and next approved booking of each item, in step with time.
+ * Once an item's next booking starts it becomes the last one, so the advance pass recomputes the marks whose
+ * next_start has passed. The check pass compares all marks with the bookings table, creates the missing ones
+ * and repairs any that drifted. Both run in batches, each its own transaction.
+ */
+@Component
+@Slf4j
+public class ItemBookingMarksJob {
+
+    private final BookingRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final Counter advanced;
+    private final Counter created;
+    private final Counter repaired;
+
+    public ItemBookingMarksJob(BookingRepository repository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${shareit.item.booking-marks.enabled:true}") boolean enabled,
+                               @Value("${shareit.item.booking-marks.batch-size:500}") int batchSize,
+                               @Value("${shareit.item.booking-marks.max-batches:20}") int maxBatches) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+
+        advanced = Counter.builder("shareit.item.booking-marks.advanced")
+                .description("Item booking marks recomputed because the next booking started")
+                .register(meterRegistry);
+        created = Counter.builder("shareit.item.booking-marks.created")
+                .description("Item booking marks created by the consistency check")
+                .register(meterRegistry);
+        repaired = Counter.builder("shareit.item.booking-marks.repaired")
+                .description("Item booking marks found to differ from bookings and recomputed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.booking-marks.delay:PT1M}",
+            initialDelayString = "${shareit.item.booking-marks.delay:PT1M}")
+    public void advance() {
+        if (enabled) {
+            advanceBookingMarks(LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.booking-marks.check-delay:PT1H}",
+            initialDelayString = "${shareit.item.booking-marks.check-delay:PT1H}")
+    public void check() {
+        if (enabled) {
+            // marks due to advance would otherwise be reported as drift
+            LocalDateTime now = LocalDateTime.now();
+            advanceBookingMarks(now);
+            checkBookingMarks(now);
+        }
+    }
+
+    /**
+     * Recomputes the marks whose next booking started at or before {@code now}, batch by batch, until
+     * a batch comes back short or {@code max-batches} have run.
+     *
+     * @return the number of marks recomputed
+     */
+    public int advanceBookingMarks(LocalDateTime now) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int count = transactionTemplate.execute(status -> repository.advanceBookingMarks(now, batchSize));
+            advanced.increment(count);
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Walks all items in id order and recomputes the marks that are missing or differ from the bookings
+     * at {@code now}. Marks due to advance count as drift, so run it after {@link #advanceBookingMarks}.
+     *
+     * @return the number of marks created or repaired
+     */
+    public int checkBookingMarks(LocalDateTime now) {
+        long afterItemId = 0;
+        int missing = 0;
+        int drifted = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            long after = afterItemId;
+            List<BookingMarkDriftView> drift = transactionTemplate.execute(status -> {
+                List<BookingMarkDriftView> found = repository.findBookingMarkDrift(after, now, batchSize);
+                if (!found.isEmpty()) {
+                    List<Long> itemIds = found.stream().map(BookingMarkDriftView::getItemId).toList();
+                    repository.lockBookingMarks(itemIds);
+                    repository.refreshBookingMarks(itemIds, now);
+                }
+                return found;
+            });
+
+            for (BookingMarkDriftView item : drift) {
+                if (item.getMissing()) {
+                    missing++;
+                } else {
+                    drifted++;
+                    log.warn("Booking marks of item {} differed from its bookings and were recomputed",
+                            item.getItemId());
+                }
+            }
+            if (drift.size() < batchSize) {
+                break;
+            }
+            afterItemId = drift.get(drift.size() - 1).getItemId();
+        }
+
+        created.increment(missing);
+        repaired.increment(drifted);
+        if (missing + drifted > 0) {
+            log.info("Booking marks check created {} and repaired {} item marks", missing, drifted);
+        }
+        return missing + drifted;
+    }
+}
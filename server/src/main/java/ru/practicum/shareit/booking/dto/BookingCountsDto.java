@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of the user's bookings in each {@link BookingState}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingCountsDto {
+
+    private long all;
+
+    private long current;
+
+    private long past;
+
+    private long future;
+
+    private long waiting;
+
+    private long rejected;
+}
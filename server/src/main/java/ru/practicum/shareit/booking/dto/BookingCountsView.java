@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingCountsView {
+
+    Long getTotal();
+
+    Long getCurrent();
+
+    Long getPast();
+
+    Long getFuture();
+
+    Long getWaiting();
+
+    Long getRejected();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionResult {
+
+    private long bookingId;
+
+    private BookingDecisionOutcome outcome;
+
+    /**
+     * Status after the request: the new one if applied, the current one if the booking had already
+     * been decided, {@code null} if the booking is missing or belongs to someone else.
+     */
+    private BookingStatus status;
+}
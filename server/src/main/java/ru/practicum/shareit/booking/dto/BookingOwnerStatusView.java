@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public interface BookingOwnerStatusView {
+
+    Long getId();
+
+    Long getOwnerId();
+
+    BookingStatus getStatus();
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the booking endpoints return: the booking with the id and name of its item and booker.
+ * Built directly from the booking queries, so rendering it never touches an entity.
+ */
+@Data
+@AllArgsConstructor
+public class BookingResponseDto {
+
+    private final long id;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    private final BookingStatus status;
+
+    private final ItemSummary item;
+
+    private final BookerSummary booker;
+
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, status, new ItemSummary(itemId, itemName), new BookerSummary(bookerId, bookerName));
+    }
+
+    @Data
+    public static class ItemSummary {
+
+        private final long id;
+
+        private final String name;
+    }
+
+    @Data
+    public static class BookerSummary {
+
+        private final long id;
+
+        private final String name;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Состояния, по которым фильтруются списки бронирований.
+ */
+public enum BookingState {
+    /** Все бронирования без фильтрации */
+    ALL,
+
+    /** Бронирования, которые идут в данный момент */
+    CURRENT,
+
+    /** Бронирования, которые ещё не начались */
+    FUTURE,
+
+    /** Завершённые бронирования */
+    PAST,
+
+    /** Бронирования, отклонённые владельцем */
+    REJECTED,
+
+    /** Бронирования, которые ожидают одобрения */
+    WAITING;
+
+    /**
+     * Преобразует строку в {@link BookingState}; отсутствующее состояние означает {@link #ALL}.
+     *
+     * @throws ValidationException если такого состояния нет
+     */
+    public static BookingState from(String state) {
+        if (state == null) {
+            return ALL;
+        }
+        for (BookingState value : values()) {
+            if (value.name().equalsIgnoreCase(state)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Unknown state: " + state);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Everything createBooking checks about the booker and the item, read in one round trip.
+ * Item columns are null when the item does not exist.
+ */
+public interface BookingTargetView {
+
+    boolean getBookerExists();
+
+    String getBookerName();
+
+    boolean getItemExists();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    String getItemName();
+}
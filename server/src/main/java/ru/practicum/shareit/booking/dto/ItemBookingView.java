@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingView {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    BookingStatus getStatus();
+
+    Boolean getLast();
+}
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.booking.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -20,7 +19,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "start_date")
@@ -30,15 +30,20 @@ public class Booking {
     private LocalDateTime end;
 
     @ManyToOne
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     @JoinColumn(name = "item_id")
     private Item item;
 
     @ManyToOne
     @JoinColumn(name = "booker_id")
-    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private User booker;
 
+    /**
+     * Owner of the booked item, copied at creation so owner lists filter bookings without joining items.
+     * The database keeps it equal to items.owner_id.
+     */
+    @Column(name = "owner_id")
+    private long owner;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private BookingStatus status;
@@ -2,6 +2,7 @@ package ru.practicum.shareit.comment;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentView;
 import ru.practicum.shareit.comment.model.Comment;
 
 import java.util.ArrayList;
@@ -21,6 +22,15 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDto mapViewToCommentDto(CommentView comment) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthorName())
+                .created(comment.getCreated())
+                .build();
+    }
+
     public static List<CommentDto> mapToCommentDto(Iterable<Comment> comments) {
         List<CommentDto> result = new ArrayList<>();
 
@@ -1,12 +1,35 @@
 package ru.practicum.shareit.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentView;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItemId(Long itemId);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.comment.dto.CommentView(c.id, c.itemId, c.text, u.name, c.createdAt)
+            FROM Comment c
+            JOIN User u ON u.id = c.authorId
+            WHERE c.itemId IN :itemIds
+            ORDER BY c.createdAt
+            """)
+    List<CommentView> findViewsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.comment.dto.CommentDto(c.id, c.text, u.name, c.createdAt)
+            FROM Comment c
+            JOIN User u ON u.id = c.authorId
+            WHERE c.itemId = :itemId
+            ORDER BY c.createdAt
+            """)
+    List<CommentDto> findCommentDtosByItemId(@Param("itemId") Long itemId);
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package ru.practicum.shareit.comment;
 
+import ru.practicum.shareit.comment.dto.CommentDto;
+
+import java.util.List;
+
 public interface CommentService {
 
-    String getNameAuthorByCommentId(Long commentId);
+    List<CommentDto> getCommentsByItemId(Long itemId);
 }
\ No newline at end of file
@@ -2,23 +2,18 @@ package ru.practicum.shareit.comment;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.comment.model.Comment;
-import ru.practicum.shareit.exception.ResourceNotFoundException;
-import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
-    private final UserService userService;
 
     @Override
-    public String getNameAuthorByCommentId(Long commentId) {
-        Comment comment = commentRepository.findById(commentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with ID: " + commentId));
-
-        Long authorId = comment.getAuthorId();
-        return userService.getUserNameById(authorId);
+    public List<CommentDto> getCommentsByItemId(Long itemId) {
+        return commentRepository.findCommentDtosByItemId(itemId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CommentView {
+
+    private final Long id;
+
+    private final Long itemId;
+
+    private final String text;
+
+    private final String authorName;
+
+    private final LocalDateTime created;
+}
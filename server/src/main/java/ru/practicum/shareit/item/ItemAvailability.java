@@ -0,0 +1,56 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cached booking calendar of an item: its waiting and approved periods, ordered by start,
+ * within the window [from, to) they were loaded for. The window starts at the load time.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemAvailability {
+
+    private final boolean available;
+
+    private final LocalDateTime from;
+
+    private final LocalDateTime to;
+
+    private final List<TimeIntervalDto> booked;
+
+    public boolean covers(LocalDateTime windowFrom, LocalDateTime windowTo) {
+        return !windowFrom.isBefore(from) && !windowTo.isAfter(to);
+    }
+
+    /**
+     * Returns the gaps between booked periods inside [from, to). The periods must be ordered
+     * by start and may overlap each other.
+     */
+    public static List<TimeIntervalDto> freeIntervals(List<TimeIntervalDto> booked, LocalDateTime from,
+                                                      LocalDateTime to) {
+        List<TimeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeIntervalDto period : booked) {
+            if (!period.getEnd().isAfter(cursor)) {
+                continue;
+            }
+            if (!period.getStart().isBefore(to)) {
+                break;
+            }
+            if (period.getStart().isAfter(cursor)) {
+                free.add(new TimeIntervalDto(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new TimeIntervalDto(cursor, to));
+        }
+        return free;
+    }
+}
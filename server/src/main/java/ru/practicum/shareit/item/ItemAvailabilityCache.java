@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingStatusChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of item booking calendars. An entry is dropped when a booking of the item
+ * is created, approved or rejected, or when the item itself changes. The ttl bounds staleness
+ * caused by bookings made through other server nodes.
+ */
+@Component
+public class ItemAvailabilityCache {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Map<Long, ItemAvailability> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ItemAvailabilityCache(MeterRegistry meterRegistry,
+                                 @Value("${shareit.item.availability.max-size:10000}") int maxSize,
+                                 @Value("${shareit.item.availability.ttl:PT1M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+
+        hits = Counter.builder("shareit.item.availability.hits")
+                .description("Availability requests answered from the calendar cache")
+                .register(meterRegistry);
+        misses = Counter.builder("shareit.item.availability.misses")
+                .description("Availability requests that had to load the calendar from the database")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.availability.size", this, ItemAvailabilityCache::size)
+                .description("Item calendars held in the cache")
+                .register(meterRegistry);
+    }
+
+    public synchronized Optional<ItemAvailability> get(long itemId, LocalDateTime now) {
+        ItemAvailability availability = entries.get(itemId);
+        if (availability == null || availability.getFrom().plus(ttl).isBefore(now)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(availability);
+    }
+
+    /**
+     * Returns a token to pass to {@link #put} once the calendar has been loaded. A calendar loaded
+     * while a booking or item changed is not cached, because it may predate the change.
+     */
+    public synchronized long startLoad() {
+        return generation;
+    }
+
+    public synchronized void put(long loadToken, long itemId, ItemAvailability availability) {
+        if (maxSize <= 0 || loadToken != generation) {
+            return;
+        }
+
+        entries.put(itemId, availability);
+        while (entries.size() > maxSize) {
+            Iterator<Long> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        generation++;
+        entries.remove(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        generation++;
+        entries.remove(event.getItemId());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
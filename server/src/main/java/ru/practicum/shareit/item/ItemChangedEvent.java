@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemChangedEvent {
+
+    private final long itemId;
+
+    private final String name;
+
+    private final String description;
+
+    private final boolean available;
+}
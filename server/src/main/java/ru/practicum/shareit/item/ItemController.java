@@ -2,11 +2,16 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +21,7 @@ import java.util.List;
 public class ItemController {
 
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
     private final ItemService itemService;
 
     @GetMapping("/{itemId}")
@@ -38,6 +44,16 @@ public class ItemController {
         return itemService.saveItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ItemDto> saveItems(
+            @RequestHeader(USER_ID) long userId,
+            @RequestBody List<ItemDto> itemDtos
+                                  ) {
+        log.info("Пакетное добавление {} предметов у пользователя под id: {}", itemDtos.size(), userId);
+        return itemService.saveItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
     public ItemDto update(
@@ -59,12 +75,34 @@ public class ItemController {
     }
 
     @GetMapping("/search")
+    public ResponseEntity<List<ItemDto>> searchItems(
+            @RequestParam("text") String searchText,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+                                                    ) {
+        log.info("Поиск всех предметов под text: {}, cursor: {}, size: {}, start: {}, end: {}",
+                searchText, cursor, size, start, end);
+        ItemSearchResult result = itemService.searchItems(searchText, cursor, size, start, end);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, result.getNextCursor());
+        }
+        return response.body(result.getItems());
+    }
+
+    @GetMapping("/{itemId}/availability")
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> searchItems(
-            @RequestParam("text") String searchText
-                                    ) {
-        log.info("Поиск всех предметов под text: {}", searchText);
-        return itemService.searchItems(searchText);
+    public List<TimeIntervalDto> getAvailability(
+            @PathVariable("itemId") long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+                                                ) {
+        log.info("Вывод свободных интервалов предмета под id: {} с {} по {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cached read model of an item page. The item view is shared by all users, the last/next
+ * bookings are shown to the owner only and stay valid until the next booking starts.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemDetail {
+
+    private final long ownerId;
+
+    private final ItemDto item;
+
+    private final boolean bookingsLoaded;
+
+    private final BookingDto lastBooking;
+
+    private final BookingDto nextBooking;
+
+    private final LocalDateTime loadedAt;
+
+    public ItemDetail(long ownerId, ItemDto item, LocalDateTime loadedAt) {
+        this(ownerId, item, false, null, null, loadedAt);
+    }
+
+    public boolean bookingsValidAt(LocalDateTime now) {
+        return bookingsLoaded && (nextBooking == null || now.isBefore(nextBooking.getStart()));
+    }
+
+    public ItemDetail withBookings(BookingDto lastBooking, BookingDto nextBooking) {
+        return new ItemDetail(ownerId, item, true, lastBooking, nextBooking, loadedAt);
+    }
+
+    public ItemDetail withoutBookings() {
+        return new ItemDetail(ownerId, item, loadedAt);
+    }
+
+    public ItemDto toItemDto(boolean forOwner) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .comments(item.getComments())
+                .requestId(item.getRequestId())
+                .lastBooking(forOwner ? lastBooking : null)
+                .nextBooking(forOwner ? nextBooking : null)
+                .build();
+    }
+}
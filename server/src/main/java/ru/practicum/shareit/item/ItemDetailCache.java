@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingStatusChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of item pages. Entries are dropped when the item or its comments change,
+ * the owner's bookings part is dropped when a booking of the item is approved or rejected.
+ * Entries older than the ttl are reloaded, which bounds staleness of comment author names.
+ */
+@Component
+public class ItemDetailCache {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Map<Long, ItemDetail> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item.cache.max-size:10000}") int maxSize,
+                           @Value("${shareit.item.cache.ttl:PT10M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+
+        hits = Counter.builder("shareit.item.cache.hits")
+                .description("Item pages answered from the read model cache")
+                .register(meterRegistry);
+        misses = Counter.builder("shareit.item.cache.misses")
+                .description("Item pages that had to be loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.cache.size", this, ItemDetailCache::size)
+                .description("Item pages held in the read model cache")
+                .register(meterRegistry);
+    }
+
+    public synchronized Optional<ItemDetail> get(long itemId, LocalDateTime now) {
+        ItemDetail detail = entries.get(itemId);
+        if (detail == null || detail.getLoadedAt().plus(ttl).isBefore(now)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(detail);
+    }
+
+    /**
+     * Returns a token to pass to {@link #put} once the page has been loaded. A page loaded
+     * while an item or booking changed is not cached, because it may predate the change.
+     */
+    public synchronized long startLoad() {
+        return generation;
+    }
+
+    public synchronized void put(long loadToken, long itemId, ItemDetail detail) {
+        if (maxSize <= 0 || loadToken != generation) {
+            return;
+        }
+
+        entries.put(itemId, detail);
+        while (entries.size() > maxSize) {
+            Iterator<Long> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        generation++;
+        entries.remove(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        generation++;
+        entries.computeIfPresent(event.getItemId(), (itemId, detail) -> detail.withoutBookings());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
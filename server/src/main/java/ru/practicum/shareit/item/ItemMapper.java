@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -18,19 +19,44 @@ public class ItemMapper {
             return null;
         }
 
-        ItemDto itemDto = ItemDto.builder()
+        ItemDto itemDto = mapToItemDtoWithoutComments(item);
+
+        if (item.getComments() != null) {
+            List<CommentDto> commentDtos = CommentMapper.mapToCommentDto(item.getComments());
+            itemDto.setComments(commentDtos);
+        }
+        return itemDto;
+    }
+
+    public static ItemDto mapToItemDto(Item item, List<CommentDto> comments) {
+        if (item == null) {
+            return null;
+        }
+
+        ItemDto itemDto = mapToItemDtoWithoutComments(item);
+        itemDto.setComments(comments);
+        return itemDto;
+    }
+
+    private static ItemDto mapToItemDtoWithoutComments(Item item) {
+        return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
+    }
 
-        if (item.getComments() != null) {
-            List<CommentDto> commentDtos = CommentMapper.mapToCommentDto(item.getComments());
-            itemDto.setComments(commentDtos);
-        }
-        return itemDto;
+    public static ItemDto mapViewToItemDto(ItemView item, List<CommentDto> comments) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .comments(comments)
+                .build();
     }
 
     public static List<ItemDto> mapToItemDto(Iterable<Item> items) {
@@ -1,17 +1,122 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchHitView;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findItemsByOwner(long ownerId);
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, i.request.id)
+            FROM Item i
+            WHERE i.owner = :ownerId
+            ORDER BY i.id
+            """)
+    List<ItemView> findViewsByOwner(@Param("ownerId") long ownerId);
 
-    List<Item> findByDescriptionContainingIgnoreCaseAndAvailableIsTrueOrNameContainingIgnoreCaseAndAvailableIsTrue(
-            String description, String name
-    );
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, i.request.id)
+            FROM Item i
+            WHERE i.id IN :itemIds
+            """)
+    List<ItemView> findViewsByIdIn(@Param("itemIds") Collection<Long> itemIds);
 
-    List<Item> findByRequestId(Long requestId);
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, i.request.id)
+            FROM Item i
+            WHERE i.request.id IN :requestIds
+            ORDER BY i.id
+            """)
+    List<ItemView> findViewsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, i.request.id)
+            FROM Item i
+            WHERE i.available = true
+              AND i.id > :afterId
+              AND (UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')) ESCAPE '\\'
+                   OR UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) ESCAPE '\\')
+            ORDER BY i.id
+            """)
+    List<ItemView> searchAvailableByText(@Param("text") String text, @Param("afterId") long afterId, Limit limit);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, i.request.id)
+            FROM Item i
+            WHERE i.available = true
+              AND i.id > :afterId
+              AND (UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')) ESCAPE '\\'
+                   OR UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) ESCAPE '\\')
+              AND NOT EXISTS (SELECT b.id FROM Booking b
+                              WHERE b.item.id = i.id
+                                AND b.status IN (ru.practicum.shareit.booking.model.BookingStatus.WAITING,
+                                                 ru.practicum.shareit.booking.model.BookingStatus.APPROVED)
+                                AND b.start < :end
+                                AND b.end > :start)
+            ORDER BY i.id
+            """)
+    List<ItemView> searchFreeByText(
+            @Param("text") String text,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterId") long afterId,
+            Limit limit
+                                   );
+
+    @Query(value = """
+            SELECT r.id, r.rank
+            FROM (SELECT i.id, ts_rank(i.search_vector, to_tsquery('russian', :query)) AS rank
+                  FROM items i
+                  WHERE i.is_available
+                    AND i.search_vector @@ to_tsquery('russian', :query)) r
+            WHERE r.rank < :afterRank
+               OR (r.rank = :afterRank AND r.id > :afterId)
+            ORDER BY r.rank DESC, r.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ItemSearchHitView> searchAvailableByFullText(
+            @Param("query") String query,
+            @Param("afterRank") float afterRank,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit
+                                                     );
+
+    /**
+     * Same as {@link #searchAvailableByFullText} but skips items with a waiting or approved booking
+     * overlapping [start, end). The anti-join probes the GiST index behind bookings_no_overlap.
+     */
+    @Query(value = """
+            SELECT r.id, r.rank
+            FROM (SELECT i.id, ts_rank(i.search_vector, to_tsquery('russian', :query)) AS rank
+                  FROM items i
+                  WHERE i.is_available
+                    AND i.search_vector @@ to_tsquery('russian', :query)
+                    AND NOT EXISTS (SELECT 1 FROM bookings b
+                                    WHERE b.item_id = i.id
+                                      AND b.status IN ('WAITING', 'APPROVED')
+                                      AND tsrange(b.start_date, b.end_date) && tsrange(:start, :end))) r
+            WHERE r.rank < :afterRank
+               OR (r.rank = :afterRank AND r.id > :afterId)
+            ORDER BY r.rank DESC, r.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ItemSearchHitView> searchFreeByFullText(
+            @Param("query") String query,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("afterRank") float afterRank,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit
+                                                );
+
+    List<ItemSearchView> findAllByAvailableIsTrue();
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded LRU cache of search pages keyed by normalized query text, cursor and page size.
+ * A changed item evicts only the pages that contain it or whose query matches its new text.
+ * Changes made on other server nodes are not seen, so pages older than the ttl are reloaded.
+ */
+@Component
+public class ItemSearchCache {
+
+    /**
+     * The russian text search configuration only strips word endings, so a full-text query word
+     * can match an item word sharing just its first letters.
+     */
+    private static final int FULL_TEXT_PREFIX_LENGTH = 2;
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final ItemSearchMode searchMode;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache.ttl:PT1M}") Duration ttl,
+                           @Value("${shareit.search.mode:like}") ItemSearchMode searchMode) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.searchMode = searchMode;
+
+        hits = Counter.builder("shareit.search.cache.hits")
+                .description("Item searches answered from the result cache")
+                .register(meterRegistry);
+        misses = Counter.builder("shareit.search.cache.misses")
+                .description("Item searches that had to query the search backend")
+                .register(meterRegistry);
+        evictions = Counter.builder("shareit.search.cache.evictions")
+                .description("Cached search pages dropped because the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.cache.size", this, ItemSearchCache::size)
+                .description("Search pages held in the result cache")
+                .register(meterRegistry);
+    }
+
+    public static String normalize(String searchText) {
+        return searchText.toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized Optional<ItemSearchResult> get(String text, String cursor, int size, LocalDateTime now) {
+        Entry entry = entries.get(new Key(text, cursor, size));
+        if (entry == null || entry.loadedAt().plus(ttl).isBefore(now)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.result());
+    }
+
+    /**
+     * Returns a token to pass to {@link #put} once the page has been loaded. A page loaded
+     * while an item changed is not cached, because it may predate the change.
+     */
+    public synchronized long startLoad() {
+        return generation;
+    }
+
+    public synchronized void put(long loadToken, String text, String cursor, int size, ItemSearchResult result,
+                                 LocalDateTime loadedAt) {
+        if (maxSize <= 0 || loadToken != generation) {
+            return;
+        }
+
+        Set<Long> itemIds = result.getItems().stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toSet());
+        entries.put(new Key(text, cursor, size), new Entry(result, itemIds, loadedAt));
+        while (entries.size() > maxSize) {
+            Iterator<Key> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(1)
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        generation++;
+        String name = event.getName() == null ? "" : normalize(event.getName());
+        String description = event.getDescription() == null ? "" : normalize(event.getDescription());
+        entries.entrySet().removeIf(cached -> cached.getValue().itemIds().contains(event.getItemId())
+                || event.isAvailable() && matches(cached.getKey().text(), name, description));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean matches(String text, String name, String description) {
+        if (searchMode != ItemSearchMode.FULL_TEXT) {
+            return name.contains(text) || description.contains(text);
+        }
+
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.substring(0, Math.min(word.length(), FULL_TEXT_PREFIX_LENGTH)))
+                .allMatch(prefix -> name.contains(prefix) || description.contains(prefix));
+    }
+
+    private record Key(String text, String cursor, int size) {
+
+        private Key {
+            cursor = cursor == null ? "" : cursor;
+        }
+    }
+
+    private record Entry(ItemSearchResult result, Set<Long> itemIds, LocalDateTime loadedAt) {
+    }
+}
@@ -2,8 +2,13 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
 
@@ -13,9 +18,24 @@ public interface ItemService {
 
     ItemDto saveItem(long userId, ItemDto itemDto);
 
+    List<ItemDto> saveItems(long userId, List<ItemDto> itemDtos);
+
     List<ItemDto> findItemsByOwner(long userId);
 
+    Map<Long, List<ItemDto>> findItemsByRequestIds(Collection<Long> requestIds);
+
     CommentDto addComment(long userId, long itemId, String text);
 
-    List<ItemDto> searchItems(String searchText);
+    ItemSearchResult searchItems(String searchText, String cursor, int size);
+
+    /**
+     * Same as {@link #searchItems(String, String, int)}, but when start and end are given returns only
+     * items without a waiting or approved booking overlapping [start, end).
+     */
+    ItemSearchResult searchItems(String searchText, String cursor, int size, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Returns the intervals inside [from, to) in which the item has no waiting or approved booking.
+     */
+    List<TimeIntervalDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
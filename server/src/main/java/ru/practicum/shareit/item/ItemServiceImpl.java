@@ -1,30 +1,47 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.CommentService;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentView;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchHitView;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,20 +52,92 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final CommentService commentService;
+    private final ItemTrigramIndex itemTrigramIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final List<BookingStatus> ACTIVE_BOOKING_STATUSES =
+            List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    @Value("${shareit.search.mode:like}")
+    private ItemSearchMode searchMode = ItemSearchMode.LIKE;
+
+    @Value("${shareit.item.availability.horizon:P365D}")
+    private Duration availabilityHorizon = Duration.ofDays(365);
+
+    @Override
+    @Transactional
+    public List<ItemDto> saveItems(long userId, List<ItemDto> itemDtos) {
+        if (itemDtos.isEmpty() || itemDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " items");
+        }
+
+        if (userService.getUserById(userId) == null) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (ItemDto itemDto : itemDtos) {
+            Item item = ItemMapper.mapToNewItem(itemDto);
+            item.setOwner(userId);
+            items.add(item);
+        }
+
+        List<ItemDto> result = new ArrayList<>();
+        for (Item item : itemRepository.saveAll(items)) {
+            publishItemChanged(item);
+            result.add(ItemMapper.mapToItemDto(item, new ArrayList<>()));
+        }
+        return result;
+    }
 
     @Override
     public List<ItemDto> findItemsByOwner(long userId) {
-        List<Item> items = itemRepository.findItemsByOwner(userId);
+        List<ItemView> items = itemRepository.findViewsByOwner(userId);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(ItemView::getId)
+                .toList();
+        Map<Long, List<CommentDto>> commentsByItemId = findCommentsByItemIds(itemIds);
+
+        Map<Long, BookingDto> lastBookings = new HashMap<>();
+        Map<Long, BookingDto> nextBookings = new HashMap<>();
+        for (ItemBookingView booking : findLastAndNextBookings(itemIds, LocalDateTime.now())) {
+            if (Boolean.TRUE.equals(booking.getLast())) {
+                lastBookings.put(booking.getItemId(), BookingMapper.mapViewToBookingDto(booking));
+            } else {
+                nextBookings.put(booking.getItemId(), BookingMapper.mapViewToBookingDto(booking));
+            }
+        }
+
         List<ItemDto> itemDtos = new ArrayList<>();
-        for (Item item : items) {
-            ItemDto b = ItemMapper.mapToItemDto(item);
-            b.setNextBooking(findNextBookingByItemId(item.getId()));
-            b.setLastBooking(findLastBookingByItemId(item.getId()));
+        for (ItemView item : items) {
+            ItemDto b = ItemMapper.mapViewToItemDto(item, commentsByItemId.getOrDefault(item.getId(), new ArrayList<>()));
+            b.setNextBooking(nextBookings.get(item.getId()));
+            b.setLastBooking(lastBookings.get(item.getId()));
             itemDtos.add(b);
         }
         return itemDtos;
     }
 
+    @Override
+    public Map<Long, List<ItemDto>> findItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<ItemView> items = itemRepository.findViewsByRequestIdIn(requestIds);
+        return mapToItemDtos(items).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+    }
+
     @Override
     @Transactional
     public ItemDto update(long userId, long itemId, ItemDto itemDto) {
@@ -70,38 +159,119 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
+        publishItemChanged(item);
         return ItemMapper.mapToItemDto(item);
     }
 
     @Override
     public ItemDto getItemById(long userId, long itemId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(()
-                -> new ResourceNotFoundException("Item not found with ID: " + itemId));
-        ItemDto itemDto = ItemMapper.mapToItemDto(item);
-
-        if (item.getOwner() != userId) {
-            itemDto.setNextBooking(null);
-            itemDto.setLastBooking(null);
-            List<CommentDto> commentDtos = getNameAuthor(item);
-            itemDto.setComments(commentDtos);
+        LocalDateTime now = LocalDateTime.now();
+        long loadToken = itemDetailCache.startLoad();
+        Optional<ItemDetail> cached = itemDetailCache.get(itemId, now);
+        ItemDetail detail;
+        if (cached.isPresent()) {
+            detail = cached.get();
         } else {
-            itemDto.setNextBooking(findNextBookingByItemId(itemId));
-            itemDto.setLastBooking(findLastBookingByItemId(itemId));
-            List<CommentDto> commentDtos = getNameAuthor(item);
-            itemDto.setComments(commentDtos);
+            Item item = itemRepository.findById(itemId).orElseThrow(()
+                    -> new ResourceNotFoundException("Item not found with ID: " + itemId));
+            detail = new ItemDetail(item.getOwner(),
+                    ItemMapper.mapToItemDto(item, commentService.getCommentsByItemId(itemId)), now);
+        }
+
+        boolean owner = detail.getOwnerId() == userId;
+        if (owner && !detail.bookingsValidAt(now)) {
+            detail = loadBookings(detail, itemId, now);
+        }
+        if (cached.isEmpty() || detail != cached.get()) {
+            itemDetailCache.put(loadToken, itemId, detail);
+        }
+        return detail.toItemDto(owner);
+    }
+
+    private ItemDetail loadBookings(ItemDetail detail, long itemId, LocalDateTime now) {
+        BookingDto lastBooking = null;
+        BookingDto nextBooking = null;
+        for (ItemBookingView booking : findLastAndNextBookings(List.of(itemId), now)) {
+            if (Boolean.TRUE.equals(booking.getLast())) {
+                lastBooking = BookingMapper.mapViewToBookingDto(booking);
+            } else {
+                nextBooking = BookingMapper.mapViewToBookingDto(booking);
+            }
         }
-        return itemDto;
+        return detail.withBookings(lastBooking, nextBooking);
     }
 
-    private List<CommentDto> getNameAuthor(Item item) {
-        List<CommentDto> commentDtos = new ArrayList<>();
-        for (Comment comment : item.getComments()) {
-            CommentDto commentDto = CommentMapper.mapToCommentDto(comment);
-            String authorName = commentService.getNameAuthorByCommentId(comment.getId());
-            commentDto.setAuthorName(authorName);
-            commentDtos.add(commentDto);
+    /**
+     * Reads the materialized last/next bookings and computes them only for items whose marks are
+     * missing or whose next booking has started since the marks were last advanced.
+     */
+    private List<ItemBookingView> findLastAndNextBookings(List<Long> itemIds, LocalDateTime now) {
+        List<ItemBookingView> bookings = new ArrayList<>();
+        Set<Long> marked = new HashSet<>();
+        for (ItemBookingView booking : bookingRepository.findMarkedBookings(itemIds, now)) {
+            marked.add(booking.getItemId());
+            if (booking.getId() != null) {
+                bookings.add(booking);
+            }
+        }
+
+        List<Long> unmarked = itemIds.stream()
+                .filter(itemId -> !marked.contains(itemId))
+                .toList();
+        if (!unmarked.isEmpty()) {
+            bookings.addAll(bookingRepository.findLastAndNextApprovedBookings(unmarked, now));
+        }
+        return bookings;
+    }
+
+    @Override
+    public List<TimeIntervalDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability window start must be before its end");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(availabilityHorizon);
+        ItemAvailability availability = itemAvailabilityCache.get(itemId, now).orElse(null);
+        if (availability == null) {
+            // a calendar loaded now only helps windows inside [now, horizon]; others read just the window
+            if (from.isBefore(now) || to.isAfter(horizon)) {
+                return findItem(itemId).getAvailable()
+                        ? ItemAvailability.freeIntervals(findBookedPeriods(itemId, from, to), from, to)
+                        : List.of();
+            }
+            availability = loadAvailability(itemId, now, horizon);
+        }
+        if (!availability.isAvailable()) {
+            return List.of();
         }
-        return commentDtos;
+
+        List<TimeIntervalDto> booked = availability.covers(from, to)
+                ? availability.getBooked()
+                : findBookedPeriods(itemId, from, to);
+        return ItemAvailability.freeIntervals(booked, from, to);
+    }
+
+    private ItemAvailability loadAvailability(long itemId, LocalDateTime now, LocalDateTime horizon) {
+        long loadToken = itemAvailabilityCache.startLoad();
+        Item item = findItem(itemId);
+        List<TimeIntervalDto> booked = item.getAvailable()
+                ? findBookedPeriods(itemId, now, horizon)
+                : List.of();
+        ItemAvailability availability = new ItemAvailability(item.getAvailable(), now, horizon, booked);
+        itemAvailabilityCache.put(loadToken, itemId, availability);
+        return availability;
+    }
+
+    private Item findItem(long itemId) {
+        return itemRepository.findById(itemId).orElseThrow(()
+                -> new ResourceNotFoundException("Item not found with ID: " + itemId));
+    }
+
+    private List<TimeIntervalDto> findBookedPeriods(long itemId, LocalDateTime from, LocalDateTime to) {
+        return bookingRepository.findBookedPeriods(itemId, from, to).stream()
+                .map(period -> new TimeIntervalDto(period.getStart(), period.getEnd()))
+                .toList();
     }
 
     @Override
@@ -121,24 +291,206 @@ public class ItemServiceImpl implements ItemService {
         }
 
         item = itemRepository.save(item);
+        publishItemChanged(item);
 
+        // a new item has no bookings or comments yet
         ItemDto dto = ItemMapper.mapToItemDto(item);
-        dto.setNextBooking(findNextBookingByItemId(item.getId()));
-        dto.setLastBooking(findLastBookingByItemId(item.getId()));
-        dto.setComments(CommentMapper.mapToCommentDto(commentRepository.findAllByItemId(item.getId())));
+        dto.setComments(List.of());
         return dto;
     }
 
     @Override
-    public List<ItemDto> searchItems(String searchText) {
+    public ItemSearchResult searchItems(String searchText, String cursor, int size) {
+        return searchItems(searchText, cursor, size, null, null);
+    }
+
+    @Override
+    public ItemSearchResult searchItems(String searchText, String cursor, int size,
+                                        LocalDateTime start, LocalDateTime end) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new ValidationException("Search page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Search window needs both start and end");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Search window start must be before its end");
+        }
+
+        ItemSearchCursor after = ItemSearchCursor.decode(cursor);
         if (searchText.isBlank()) {
+            return new ItemSearchResult(new ArrayList<>(), null);
+        }
+
+        // pages filtered by a booking window go stale as bookings change, so they are not cached
+        if (start != null) {
+            return search(searchText, after, size, start, end);
+        }
+
+        String cacheKey = ItemSearchCache.normalize(searchText);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<ItemSearchResult> cached = itemSearchCache.get(cacheKey, cursor, size, now);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long loadToken = itemSearchCache.startLoad();
+        ItemSearchResult result = search(searchText, after, size, null, null);
+        itemSearchCache.put(loadToken, cacheKey, cursor, size, result, now);
+        return result;
+    }
+
+    private ItemSearchResult search(String searchText, ItemSearchCursor after, int size,
+                                    LocalDateTime start, LocalDateTime end) {
+        switch (searchMode) {
+            case TRIGRAM:
+                return searchByTrigramIndex(searchText, after, size, start, end);
+            case FULL_TEXT:
+                return searchByFullText(searchText, after, size, start, end);
+            default:
+                return searchByText(searchText, after, size, start, end);
+        }
+    }
+
+    private ItemSearchResult searchByText(String searchText, ItemSearchCursor after, int size,
+                                          LocalDateTime start, LocalDateTime end) {
+        String text = escapeLike(searchText);
+        List<ItemView> items = start == null
+                ? itemRepository.searchAvailableByText(text, after.getId(), Limit.of(size + 1))
+                : itemRepository.searchFreeByText(text, start, end, after.getId(), Limit.of(size + 1));
+        if (items.size() <= size) {
+            return new ItemSearchResult(mapToItemDtos(items), null);
+        }
+
+        List<ItemView> page = items.subList(0, size);
+        String nextCursor = new ItemSearchCursor(0, page.get(size - 1).getId()).encode();
+        return new ItemSearchResult(mapToItemDtos(page), nextCursor);
+    }
+
+    private ItemSearchResult searchByFullText(String searchText, ItemSearchCursor after, int size,
+                                              LocalDateTime start, LocalDateTime end) {
+        String query = toPrefixTsQuery(searchText);
+        if (query.isEmpty()) {
+            return new ItemSearchResult(new ArrayList<>(), null);
+        }
+
+        List<ItemSearchHitView> hits = start == null
+                ? itemRepository.searchAvailableByFullText(query, after.getRank(), after.getId(), size + 1)
+                : itemRepository.searchFreeByFullText(query, start, end, after.getRank(), after.getId(), size + 1);
+        String nextCursor = null;
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            ItemSearchHitView last = hits.get(size - 1);
+            nextCursor = new ItemSearchCursor(last.getRank(), last.getId()).encode();
+        }
+
+        List<Long> itemIds = hits.stream()
+                .map(ItemSearchHitView::getId)
+                .toList();
+        return new ItemSearchResult(mapToItemDtos(findViewsByIdInOrder(itemIds)), nextCursor);
+    }
+
+    private ItemSearchResult searchByTrigramIndex(String searchText, ItemSearchCursor after, int size,
+                                                  LocalDateTime start, LocalDateTime end) {
+        List<Long> itemIds = start == null
+                ? itemTrigramIndex.search(searchText, after.getId(), size + 1)
+                : searchFreeByTrigramIndex(searchText, after.getId(), size + 1, start, end);
+        String nextCursor = null;
+        if (itemIds.size() > size) {
+            itemIds = itemIds.subList(0, size);
+            nextCursor = new ItemSearchCursor(0, itemIds.get(size - 1)).encode();
+        }
+        return new ItemSearchResult(mapToItemDtos(findViewsByIdInOrder(itemIds)), nextCursor);
+    }
+
+    /**
+     * Pages through the trigram index and drops items booked in the window, one booking query
+     * per page of candidates, until the limit is reached or the index runs out.
+     */
+    private List<Long> searchFreeByTrigramIndex(String searchText, long afterId, int limit,
+                                                LocalDateTime start, LocalDateTime end) {
+        List<Long> free = new ArrayList<>();
+        long cursor = afterId;
+        while (free.size() < limit) {
+            List<Long> candidates = itemTrigramIndex.search(searchText, cursor, limit);
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            Set<Long> booked = new HashSet<>(bookingRepository.findItemIdsBookedBetween(candidates,
+                    ACTIVE_BOOKING_STATUSES, start, end));
+            for (Long itemId : candidates) {
+                if (!booked.contains(itemId) && free.size() < limit) {
+                    free.add(itemId);
+                }
+            }
+            if (candidates.size() < limit) {
+                break;
+            }
+            cursor = candidates.getLast();
+        }
+        return free;
+    }
+
+    private List<ItemView> findViewsByIdInOrder(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, ItemView> itemsById = new HashMap<>();
+        for (ItemView item : itemRepository.findViewsByIdIn(itemIds)) {
+            itemsById.put(item.getId(), item);
+        }
+        return itemIds.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<ItemDto> mapToItemDtos(List<ItemView> items) {
+        if (items.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> items = itemRepository.findByDescriptionContainingIgnoreCaseAndAvailableIsTrueOrNameContainingIgnoreCaseAndAvailableIsTrue(searchText, searchText);
-        return ItemMapper.mapToItemDto(items);
+
+        Map<Long, List<CommentDto>> commentsByItemId = findCommentsByItemIds(items.stream()
+                .map(ItemView::getId)
+                .toList());
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (ItemView item : items) {
+            itemDtos.add(ItemMapper.mapViewToItemDto(item, commentsByItemId.getOrDefault(item.getId(), new ArrayList<>())));
+        }
+        return itemDtos;
+    }
+
+    private Map<Long, List<CommentDto>> findCommentsByItemIds(Collection<Long> itemIds) {
+        Map<Long, List<CommentDto>> commentsByItemId = new HashMap<>();
+        for (CommentView comment : commentRepository.findViewsByItemIdIn(itemIds)) {
+            commentsByItemId.computeIfAbsent(comment.getItemId(), id -> new ArrayList<>())
+                    .add(CommentMapper.mapViewToCommentDto(comment));
+        }
+        return commentsByItemId;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    private void publishItemChanged(Item item) {
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable())));
+    }
+
+    private static String toPrefixTsQuery(String searchText) {
+        return Arrays.stream(searchText.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(long userId, long itemId, String text) {
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
                 new ResourceNotFoundException("Item not found with ID: " + itemId));
@@ -159,32 +511,13 @@ public class ItemServiceImpl implements ItemService {
         comment.setItemId(itemId);
         comment.setAuthorId(userId);
         comment.setCreatedAt(LocalDateTime.now());
+        // saved on its own: item.comments is lazy and only needed by readers that join it
         commentRepository.save(comment);
-
-        List<Comment> comments = item.getComments();
-        if (comments == null) {
-            comments = new ArrayList<>();
-        }
-        comments.add(comment);
-        item.setComments(comments);
+        publishItemChanged(item);
 
         CommentDto commentDto = CommentMapper.mapToCommentDto(comment);
         commentDto.setAuthorName(user.getName());
 
         return commentDto;
     }
-
-    private BookingDto findLastBookingByItemId(long itemId) {
-        Booking lastBookings = bookingRepository.findFirstBookingByItemIdAndStatusAndStartIsBefore(itemId,
-                BookingStatus.APPROVED, LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "start"));
-        BookingDto lastBookingsDTO = BookingMapper.mapToBookingDto(lastBookings);
-        return lastBookingsDTO;
-    }
-
-    private BookingDto findNextBookingByItemId(long itemId) {
-        Booking nextBookings = bookingRepository.findFirstBookingByItemIdAndStatusAndStartIsAfter(itemId,
-                BookingStatus.APPROVED, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
-        BookingDto nextBookingsDTO = BookingMapper.mapToBookingDto(nextBookings);
-        return nextBookingsDTO;
-    }
 }
\ No newline at end of file
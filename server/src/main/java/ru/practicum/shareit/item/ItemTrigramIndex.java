@@ -0,0 +1,311 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the name and description of available items.
+ * Candidates found by intersecting posting lists are re-checked with a substring match,
+ * so results are the same as for the UPPER(...) LIKE repository query. Text is folded one
+ * character at a time, as PostgreSQL UPPER does, rather than with String.toUpperCase, which
+ * expands characters such as 'ß'. The database folds by its LC_CTYPE, so a non-UTF-8 or
+ * non-default ctype can still give different results for letters outside that locale.
+ */
+@Component
+@Slf4j
+public class ItemTrigramIndex {
+
+    private static final int TRIGRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    // changes seen while a rebuild reads its snapshot, re-applied on top of it; null when not rebuilding
+    private Map<Long, ItemChangedEvent> changesDuringRebuild;
+
+    public ItemTrigramIndex(ItemRepository itemRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.search.mode:like}") ItemSearchMode searchMode) {
+        this.itemRepository = itemRepository;
+        this.enabled = searchMode == ItemSearchMode.TRIGRAM;
+
+        Gauge.builder("shareit.search.index.items", this, ItemTrigramIndex::size)
+                .description("Items held in the trigram search index")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.bytes.per.item", this, ItemTrigramIndex::estimatedBytesPerItem)
+                .description("Estimated heap used by the trigram search index per indexed item")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the index with the available items read from the database. The read happens outside the
+     * lock, so changes committed meanwhile may be missing from it; they are recorded as they arrive and
+     * applied again over the snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ItemSearchView> available;
+        try {
+            available = itemRepository.findAllByAvailableIsTrue();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            postings.clear();
+            for (ItemSearchView item : available) {
+                add(new IndexedItem(item.getId(), normalize(item.getName()), normalize(item.getDescription())));
+            }
+            changesDuringRebuild.values().forEach(this::apply);
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trigram search index built: {} items, {} trigrams", items.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (changesDuringRebuild != null) {
+                // the latest change of an item wins, whatever the snapshot holds
+                changesDuringRebuild.put(event.getItemId(), event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, long afterId, int limit) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            if (query.length() < TRIGRAM_LENGTH) {
+                return items.values().stream()
+                        .filter(item -> item.id() > afterId && item.matches(query))
+                        .map(IndexedItem::id)
+                        .sorted()
+                        .limit(limit)
+                        .toList();
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (long trigram : trigrams(query)) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            long[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = intersect(candidates, count, lists.get(i));
+            }
+
+            int from = Arrays.binarySearch(candidates, 0, count, afterId);
+            from = from >= 0 ? from + 1 : -from - 1;
+
+            List<Long> result = new ArrayList<>();
+            for (int i = from; i < count && result.size() < limit; i++) {
+                if (items.get(candidates[i]).matches(query)) {
+                    result.add(candidates[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double estimatedBytesPerItem() {
+        lock.readLock().lock();
+        try {
+            if (items.isEmpty()) {
+                return 0;
+            }
+
+            // map entries, boxed keys and object headers are counted as fixed overheads
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += 64 + 32 + 8L * list.ids.length;
+            }
+            for (IndexedItem item : items.values()) {
+                bytes += 64 + 32 + 80 + 2L * (item.name().length() + item.description().length());
+            }
+            return (double) bytes / items.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ItemChangedEvent event) {
+        remove(event.getItemId());
+        if (event.isAvailable()) {
+            add(new IndexedItem(event.getItemId(), normalize(event.getName()), normalize(event.getDescription())));
+        }
+    }
+
+    private void add(IndexedItem item) {
+        items.put(item.id(), item);
+        for (long trigram : item.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(item.id());
+        }
+    }
+
+    private void remove(long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item == null) {
+            return;
+        }
+
+        for (long trigram : item.trigrams()) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(itemId) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static int intersect(long[] candidates, int count, PostingList list) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < list.size; i++) {
+            while (j < list.size && list.ids[j] < candidates[i]) {
+                j++;
+            }
+            if (j < list.size && list.ids[j] == candidates[i]) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        return kept;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        StringBuilder folded = new StringBuilder(value.length());
+        value.codePoints().forEach(codePoint -> folded.appendCodePoint(Character.toUpperCase(codePoint)));
+        return folded.toString();
+    }
+
+    private static Set<Long> trigrams(String value) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= value.length(); i++) {
+            result.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        return result;
+    }
+
+    private record IndexedItem(long id, String name, String description) {
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<Long> trigrams() {
+            Set<Long> result = ItemTrigramIndex.trigrams(name);
+            result.addAll(ItemTrigramIndex.trigrams(description));
+            return result;
+        }
+    }
+
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemView {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String description;
+
+    private final Boolean available;
+
+    private final Long requestId;
+}
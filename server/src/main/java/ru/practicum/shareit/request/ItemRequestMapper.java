@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -19,6 +20,15 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public static ItemRequestWithResponsesDto viewToDtoWithItems(ItemRequestView request, List<ItemDto> items) {
+        return ItemRequestWithResponsesDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(items != null ? items : List.of())
+                .build();
+    }
+
     public static ItemRequestWithResponsesDto toDtoWithItems(ItemRequest request, List<ItemDto> items) {
         if (request == null) return null;
         return ItemRequestWithResponsesDto.builder()
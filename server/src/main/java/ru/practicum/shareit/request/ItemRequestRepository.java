@@ -1,13 +1,28 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long requesterId);
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemRequestView(r.id, r.description, r.created)
+            FROM ItemRequest r
+            WHERE r.requester.id = :requesterId
+            ORDER BY r.created DESC
+            """)
+    List<ItemRequestView> findViewsByRequesterIdOrderByCreatedDesc(@Param("requesterId") Long requesterId);
 
-    List<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(Long requesterId);
+    @Query("""
+            SELECT new ru.practicum.shareit.request.dto.ItemRequestView(r.id, r.description, r.created)
+            FROM ItemRequest r
+            WHERE r.requester.id <> :requesterId
+            ORDER BY r.created DESC
+            """)
+    List<ItemRequestView> findViewsByRequesterIdNotOrderByCreatedDesc(@Param("requesterId") Long requesterId);
 }
\ No newline at end of file
@@ -3,10 +3,10 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.item.ItemMapper;
-import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,7 +23,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
-    private final ItemRepository itemRepository;
+    private final ItemService itemService;
 
     @Override
     @Transactional
@@ -41,39 +42,39 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestWithResponsesDto> getOwnRequests(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-        return requestRepository.findAllByRequesterIdOrderByCreatedDesc(userId).stream()
-                .map(this::mapWithItems)
-                .collect(Collectors.toList());
+        checkUserExists(userId);
+        return mapWithItems(requestRepository.findViewsByRequesterIdOrderByCreatedDesc(userId));
     }
 
     @Override
     public List<ItemRequestWithResponsesDto> getAllRequests(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-
-        return requestRepository.findAllByRequesterIdNotOrderByCreatedDesc(userId).stream()
-                .map(this::mapWithItems)
-                .collect(Collectors.toList());
+        checkUserExists(userId);
+        return mapWithItems(requestRepository.findViewsByRequesterIdNotOrderByCreatedDesc(userId));
     }
 
     @Override
     public ItemRequestWithResponsesDto getRequestById(Long userId, Long requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        checkUserExists(userId);
 
         ItemRequest request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Request not found: " + requestId));
 
-        return mapWithItems(request);
+        List<ItemDto> items = itemService.findItemsByRequestIds(List.of(requestId)).get(requestId);
+        return ItemRequestMapper.toDtoWithItems(request, items);
     }
 
-    private ItemRequestWithResponsesDto mapWithItems(ItemRequest request) {
-        List<ItemDto> items = itemRepository.findByRequestId(request.getId()).stream()
-                .map(ItemMapper::mapToItemDto)
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found: " + userId);
+        }
+    }
+
+    private List<ItemRequestWithResponsesDto> mapWithItems(List<ItemRequestView> requests) {
+        Map<Long, List<ItemDto>> itemsByRequestId = itemService.findItemsByRequestIds(requests.stream()
+                .map(ItemRequestView::getId)
+                .toList());
+        return requests.stream()
+                .map(request -> ItemRequestMapper.viewToDtoWithItems(request, itemsByRequestId.get(request.getId())))
                 .collect(Collectors.toList());
-        return ItemRequestMapper.toDtoWithItems(request, items);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemRequestView {
+
+    private final Long id;
+
+    private final String description;
+
+    private final LocalDateTime created;
+}
@@ -13,7 +13,8 @@ import lombok.*;
 public class UserEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_entity_seq")
+    @SequenceGenerator(name = "user_entity_seq", sequenceName = "users_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -4,12 +4,18 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) FROM User u ORDER BY u.id")
+    List<UserDto> findAllUserDtos();
+
     @Modifying
     @Query("UPDATE User u SET u.name = :name, u.email = :email WHERE u.id = :userId")
     void updateUser(@Param("userId") long userId, @Param("name") String name, @Param("email") String email);
@@ -15,6 +15,4 @@ public interface UserService {
     UserDto update(long userId, UserDto userDto);
 
     void deleteUserById(long userId);
-
-    String getUserNameById(Long userId);
 }
\ No newline at end of file
@@ -19,8 +19,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public List<UserDto> getAllUsers() {
-        List<User> users = repository.findAll();
-        return UserMapper.mapToUserDto(users);
+        return repository.findAllUserDtos();
     }
 
     @Override
@@ -38,13 +37,6 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToUserDto(user);
     }
 
-    @Override
-    public String getUserNameById(Long userId) {
-        User user = repository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
-        return user.getName();
-    }
-
     @Override
     public UserDto getUserById(long userId) {
         User user = repository.findById(userId)
@@ -1,48 +1,208 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DROP TABLE IF EXISTS item_booking_marks CASCADE;
+DROP TABLE IF EXISTS booking_counters CASCADE;
+DROP TABLE IF EXISTS booking_counter_clock CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS items_id_seq;
+DROP SEQUENCE IF EXISTS bookings_id_seq;
+DROP SEQUENCE IF EXISTS requests_id_seq;
+DROP SEQUENCE IF EXISTS comments_id_seq;
+
+-- Hibernate reserves 50 ids per nextval call (pooled-lo), so INCREMENT BY must match allocationSize
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+id BIGINT DEFAULT nextval('users_id_seq') PRIMARY KEY NOT NULL,
 name VARCHAR(255) UNIQUE NOT NULL,
 email VARCHAR(512) UNIQUE NOT NULL
 );
 
+ALTER SEQUENCE users_id_seq OWNED BY users.id;
+
+CREATE SEQUENCE IF NOT EXISTS items_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+id BIGINT DEFAULT nextval('items_id_seq') PRIMARY KEY NOT NULL,
 name varchar(255) UNIQUE,
 description varchar(255),
 is_available boolean,
 owner_id integer REFERENCES users(id),
-request_id integer
+request_id integer,
+search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('russian', coalesce(name, '') || ' ' || coalesce(description, ''))
+) STORED,
+CONSTRAINT uq_items_id_owner UNIQUE (id, owner_id)
 );
 
+ALTER SEQUENCE items_id_seq OWNED BY items.id;
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector) WHERE is_available;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings
 (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+id BIGINT DEFAULT nextval('bookings_id_seq') PRIMARY KEY NOT NULL,
 start_date TIMESTAMP WITHOUT TIME ZONE,
 end_date TIMESTAMP WITHOUT TIME ZONE,
 item_id integer REFERENCES items(id),
 booker_id integer REFERENCES users(id),
-status varchar(255)
+owner_id integer NOT NULL,
+status varchar(255),
+-- owner_id copies the item's owner; the key rejects a mismatch and follows any change of owner
+CONSTRAINT fk_bookings_item_owner FOREIGN KEY (item_id, owner_id)
+    REFERENCES items (id, owner_id) ON UPDATE CASCADE,
+CONSTRAINT bookings_no_overlap EXCLUDE USING gist (
+    item_id WITH =,
+    tsrange(start_date, end_date) WITH &&
+) WHERE (status IN ('WAITING', 'APPROVED'))
+);
+
+ALTER SEQUENCE bookings_id_seq OWNED BY bookings.id;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- Booking lists: booker states seek on booker_id, owner states on the denormalized owner_id
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (owner_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date, id);
+
+-- Expiry job: waiting bookings in start order, a small index since waiting bookings are short-lived
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
+
+-- Counter clock: bookings that started or ended since the clock last moved
+CREATE INDEX IF NOT EXISTS idx_bookings_start ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+-- Last and next approved booking of each item, refreshed on approval and as next_start passes
+CREATE TABLE IF NOT EXISTS item_booking_marks
+(
+item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+last_booking_id BIGINT REFERENCES bookings(id),
+next_booking_id BIGINT REFERENCES bookings(id),
+next_start TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_marks_next_start ON item_booking_marks (next_start);
+
+-- Booking counts of each user as booker and as owner, one row per badge request.
+-- Time states are counted as of the single clock row, which the counter job moves forward
+CREATE TABLE IF NOT EXISTS booking_counters
+(
+user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+role varchar(10) NOT NULL,
+total BIGINT NOT NULL,
+current BIGINT NOT NULL,
+past BIGINT NOT NULL,
+future BIGINT NOT NULL,
+waiting BIGINT NOT NULL,
+rejected BIGINT NOT NULL,
+PRIMARY KEY (user_id, role)
 );
 
+CREATE TABLE IF NOT EXISTS booking_counter_clock
+(
+id integer PRIMARY KEY CHECK (id = 1),
+counted_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+INSERT INTO booking_counter_clock (id, counted_at) VALUES (1, LOCALTIMESTAMP);
+
+-- Adds inserted bookings to the counters of their bookers and owners within the INSERT itself.
+-- A user's first counted booking creates the row from their earlier bookings as of the counter clock,
+-- which is share-locked so the clock cannot move past bookings the new row has not seen.
+-- The body is single-quoted because spring.sql.init splits statements on ; outside quotes
+CREATE OR REPLACE FUNCTION count_created_bookings() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    clock_at TIMESTAMP;
+BEGIN
+    SELECT k.counted_at INTO clock_at FROM booking_counter_clock k FOR SHARE;
+
+    INSERT INTO booking_counters (user_id, role, total, current, past, future, waiting, rejected)
+    SELECT u.user_id, u.role,
+           COUNT(x.id),
+           COUNT(x.id) FILTER (WHERE x.start_date <= clock_at AND x.end_date > clock_at),
+           COUNT(x.id) FILTER (WHERE x.end_date <= clock_at),
+           COUNT(x.id) FILTER (WHERE x.start_date > clock_at),
+           COUNT(x.id) FILTER (WHERE x.status = ''WAITING''),
+           COUNT(x.id) FILTER (WHERE x.status = ''REJECTED'')
+    FROM (SELECT n.booker_id AS user_id, ''BOOKER'' AS role FROM inserted n
+          UNION
+          SELECT n.owner_id, ''OWNER'' FROM inserted n) u
+    LEFT JOIN bookings x ON ((u.role = ''BOOKER'' AND x.booker_id = u.user_id)
+                             OR (u.role = ''OWNER'' AND x.owner_id = u.user_id))
+                        AND x.id NOT IN (SELECT n.id FROM inserted n)
+    WHERE NOT EXISTS (SELECT 1 FROM booking_counters c WHERE c.user_id = u.user_id AND c.role = u.role)
+    GROUP BY u.user_id, u.role
+    ORDER BY u.user_id, u.role
+    ON CONFLICT (user_id, role) DO NOTHING;
+
+    WITH d AS (SELECT u.user_id, u.role,
+                      COUNT(*) AS total,
+                      COUNT(*) FILTER (WHERE n.start_date <= clock_at AND n.end_date > clock_at) AS current,
+                      COUNT(*) FILTER (WHERE n.end_date <= clock_at) AS past,
+                      COUNT(*) FILTER (WHERE n.start_date > clock_at) AS future,
+                      COUNT(*) FILTER (WHERE n.status = ''WAITING'') AS waiting,
+                      COUNT(*) FILTER (WHERE n.status = ''REJECTED'') AS rejected
+               FROM inserted n
+               CROSS JOIN LATERAL (VALUES (n.booker_id, ''BOOKER''), (n.owner_id, ''OWNER'')) u(user_id, role)
+               GROUP BY u.user_id, u.role),
+         locked AS (SELECT c.user_id, c.role FROM booking_counters c
+                    JOIN d ON d.user_id = c.user_id AND d.role = c.role
+                    ORDER BY c.user_id, c.role
+                    FOR UPDATE OF c)
+    UPDATE booking_counters c
+    SET total = c.total + d.total,
+        current = c.current + d.current,
+        past = c.past + d.past,
+        future = c.future + d.future,
+        waiting = c.waiting + d.waiting,
+        rejected = c.rejected + d.rejected
+    FROM d JOIN locked l ON l.user_id = d.user_id AND l.role = d.role
+    WHERE c.user_id = d.user_id AND c.role = d.role;
+
+    RETURN NULL;
+END';
+
+CREATE TRIGGER bookings_count_created AFTER INSERT ON bookings
+REFERENCING NEW TABLE AS inserted
+FOR EACH STATEMENT EXECUTE FUNCTION count_created_bookings();
+
+CREATE SEQUENCE IF NOT EXISTS requests_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+id BIGINT DEFAULT nextval('requests_id_seq') PRIMARY KEY,
 description TEXT NOT NULL,
 requester_id BIGINT NOT NULL REFERENCES users(id),
 created TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
+ALTER SEQUENCE requests_id_seq OWNED BY requests.id;
+
+CREATE SEQUENCE IF NOT EXISTS comments_id_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS comments
 (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+id BIGINT DEFAULT nextval('comments_id_seq') PRIMARY KEY NOT NULL,
 text varchar(512),
 item_id integer REFERENCES items(id),
 author_id integer REFERENCES users(id),
 created_at TIMESTAMP WITHOUT TIME ZONE
-);
\ No newline at end of file
+);
+
+ALTER SEQUENCE comments_id_seq OWNED BY comments.id;
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
\ No newline at end of file
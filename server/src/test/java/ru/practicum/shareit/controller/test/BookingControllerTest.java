@@ -14,9 +14,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
@@ -57,9 +62,7 @@ public class BookingControllerTest {
                 .status(BookingStatus.APPROVED)
                 .build();
 
-        Booking expectedBooking = new Booking();
-        expectedBooking.setId(1L);
-        expectedBooking.setStatus(BookingStatus.WAITING);
+        var expectedBooking = booking(1L, BookingStatus.WAITING);
 
         doReturn(expectedBooking)
                 .when(this.bookingService)
@@ -82,6 +85,36 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(this.bookingService);
     }
 
+    @Test
+    @DisplayName("Пакетное решение по бронированиям возвращает исход для каждого")
+    void setBookingApprovals_RequestIsValid_ReturnOk() throws Exception {
+        var userId = 1L;
+        var decisions = List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false));
+
+        doReturn(List.of(
+                new BookingDecisionResult(1L, BookingDecisionOutcome.APPLIED, BookingStatus.APPROVED),
+                new BookingDecisionResult(2L, BookingDecisionOutcome.NOT_FOUND, null)))
+                .when(bookingService)
+                .setBookingApprovals(userId, decisions);
+
+        var requestBuilder = MockMvcRequestBuilders.patch("/bookings/batch")
+                .header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(decisions));
+
+        mockMvc.perform(requestBuilder)
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].bookingId").value(1),
+                        jsonPath("$[0].outcome").value("APPLIED"),
+                        jsonPath("$[0].status").value("APPROVED"),
+                        jsonPath("$[1].outcome").value("NOT_FOUND")
+                );
+
+        verify(bookingService).setBookingApprovals(userId, decisions);
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     @DisplayName("Подтверждение бронирования - успешный сценарий")
     void setBookingApproval_RequestIsValid_ReturnOk() throws Exception {
@@ -89,9 +122,7 @@ public class BookingControllerTest {
         var bookingId = 1L;
         var approved = true;
 
-        var expectedBooking = new Booking();
-        expectedBooking.setId(bookingId);
-        expectedBooking.setStatus(BookingStatus.APPROVED);
+        var expectedBooking = booking(bookingId, BookingStatus.APPROVED);
 
         doReturn(expectedBooking)
                 .when(bookingService)
@@ -118,9 +149,7 @@ public class BookingControllerTest {
         var userId = 1L;
         var bookingId = 1L;
 
-        var expectedBooking = new Booking();
-        expectedBooking.setId(bookingId);
-        expectedBooking.setStatus(BookingStatus.APPROVED);
+        var expectedBooking = booking(bookingId, BookingStatus.APPROVED);
 
         doReturn(expectedBooking)
                 .when(bookingService)
@@ -145,33 +174,30 @@ public class BookingControllerTest {
     void findBookingsByBookerId_RequestIsValid_ReturnOk() throws Exception {
         var userId = 1L;
 
-        var booking1 = new Booking();
-        booking1.setId(1L);
-        booking1.setStatus(BookingStatus.APPROVED);
-
-        var booking2 = new Booking();
-        booking2.setId(2L);
-        booking2.setStatus(BookingStatus.WAITING);
+        var booking1 = booking(1L, BookingStatus.APPROVED);
+        var booking2 = booking(2L, BookingStatus.WAITING);
 
         var expectedBookings = List.of(booking1, booking2);
 
-        doReturn(expectedBookings)
+        doReturn(new BookingPage(expectedBookings, "next"))
                 .when(bookingService)
-                .findBookingsByBookerId(userId);
+                .findBookings(userId, BookingRole.BOOKER, "ALL", null, 0, 2);
 
         var requestBuilder = MockMvcRequestBuilders.get("/bookings/")
-                .header("X-Sharer-User-Id", userId);
+                .header("X-Sharer-User-Id", userId)
+                .param("size", "2");
 
         mockMvc.perform(requestBuilder)
                 .andExpectAll(
                         status().isOk(),
+                        header().string("X-Next-Cursor", "next"),
                         jsonPath("$[0].id").value(1),
                         jsonPath("$[0].status").value("APPROVED"),
                         jsonPath("$[1].id").value(2),
                         jsonPath("$[1].status").value("WAITING")
                 );
 
-        verify(bookingService).findBookingsByBookerId(userId);
+        verify(bookingService).findBookings(userId, BookingRole.BOOKER, "ALL", null, 0, 2);
         verifyNoMoreInteractions(bookingService);
     }
 
@@ -181,34 +207,31 @@ public class BookingControllerTest {
         var userId = 1L;
         var state = "ALL";
 
-        var booking1 = new Booking();
-        booking1.setId(1L);
-        booking1.setStatus(BookingStatus.APPROVED);
-
-        var booking2 = new Booking();
-        booking2.setId(2L);
-        booking2.setStatus(BookingStatus.REJECTED);
+        var booking1 = booking(1L, BookingStatus.APPROVED);
+        var booking2 = booking(2L, BookingStatus.REJECTED);
 
         var expectedBookings = List.of(booking1, booking2);
 
-        doReturn(expectedBookings)
+        doReturn(new BookingPage(expectedBookings, "next"))
                 .when(bookingService)
-                .findBookingsByStateAndOwnerId(userId, state);
+                .findBookings(userId, BookingRole.OWNER, state, null, 0, 2);
 
         var requestBuilder = MockMvcRequestBuilders.get("/bookings/owner")
                 .header("X-Sharer-User-Id", userId)
-                .param("state", state);
+                .param("state", state)
+                .param("size", "2");
 
         mockMvc.perform(requestBuilder)
                 .andExpectAll(
                         status().isOk(),
+                        header().string("X-Next-Cursor", "next"),
                         jsonPath("$[0].id").value(1),
                         jsonPath("$[0].status").value("APPROVED"),
                         jsonPath("$[1].id").value(2),
                         jsonPath("$[1].status").value("REJECTED")
                 );
 
-        verify(bookingService).findBookingsByStateAndOwnerId(userId, state);
+        verify(bookingService).findBookings(userId, BookingRole.OWNER, state, null, 0, 2);
         verifyNoMoreInteractions(bookingService);
     }
 
@@ -218,28 +241,33 @@ public class BookingControllerTest {
         var userId = 1L;
         var state = "FUTURE";
 
-        var booking = new Booking();
-        booking.setId(1L);
-        booking.setStatus(BookingStatus.WAITING);
+        var booking = booking(1L, BookingStatus.WAITING);
 
         var expectedBookings = List.of(booking);
 
-        doReturn(expectedBookings)
+        doReturn(new BookingPage(expectedBookings, null))
                 .when(bookingService)
-                .findBookingsByStateAndBookerId(userId, state);
+                .findBookings(userId, BookingRole.BOOKER, state, "abc", 0, 10);
 
         var requestBuilder = MockMvcRequestBuilders.get("/bookings")
                 .header("X-Sharer-User-Id", userId)
-                .param("state", state);
+                .param("state", state)
+                .param("cursor", "abc");
 
         mockMvc.perform(requestBuilder)
                 .andExpectAll(
                         status().isOk(),
+                        header().doesNotExist("X-Next-Cursor"),
                         jsonPath("$[0].id").value(1),
                         jsonPath("$[0].status").value("WAITING")
                 );
 
-        verify(bookingService).findBookingsByStateAndBookerId(userId, state);
+        verify(bookingService).findBookings(userId, BookingRole.BOOKER, state, "abc", 0, 10);
         verifyNoMoreInteractions(bookingService);
     }
-}
\ No newline at end of file
+
+    private static BookingResponseDto booking(long id, BookingStatus status) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        return new BookingResponseDto(id, start, start.plusDays(1), status, 1L, "Дрель", 2L, "Арендатор");
+    }
+}
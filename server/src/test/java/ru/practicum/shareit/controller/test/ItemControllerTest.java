@@ -17,10 +17,14 @@ import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -105,6 +109,67 @@ public class ItemControllerTest {
         verifyNoMoreInteractions(itemService);
     }
 
+    @Test
+    @DisplayName("Пакетное создание предметов - успешный сценарий")
+    void saveItems_ValidRequest_ReturnsCreated() throws Exception {
+        var userId = 1L;
+        var first = ItemDto.builder().name("Дрель").description("Ударная").available(true).build();
+        var second = ItemDto.builder().name("Пила").description("Ручная").available(true).build();
+        var itemDtos = List.of(first, second);
+
+        var savedFirst = ItemDto.builder().id(1L).name("Дрель").build();
+        var savedSecond = ItemDto.builder().id(2L).name("Пила").build();
+
+        doReturn(List.of(savedFirst, savedSecond))
+                .when(itemService)
+                .saveItems(userId, itemDtos);
+
+        var requestBuilder = MockMvcRequestBuilders.post("/items/batch")
+                .header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(itemDtos));
+
+        mockMvc.perform(requestBuilder)
+                .andExpectAll(
+                        status().isCreated(),
+                        jsonPath("$[0].id").value(1),
+                        jsonPath("$[1].name").value("Пила")
+                );
+
+        verify(itemService).saveItems(userId, itemDtos);
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    @DisplayName("Свободные интервалы предмета - успешный сценарий")
+    void getAvailability_ValidRequest_ReturnsFreeIntervals() throws Exception {
+        var itemId = 1L;
+        var from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        var to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        var free = List.of(
+                new TimeIntervalDto(from, LocalDateTime.of(2030, 1, 3, 12, 0)),
+                new TimeIntervalDto(LocalDateTime.of(2030, 1, 5, 12, 0), to));
+
+        doReturn(free)
+                .when(itemService)
+                .getAvailability(itemId, from, to);
+
+        var requestBuilder = MockMvcRequestBuilders.get("/items/{itemId}/availability", itemId)
+                .param("from", "2030-01-01T00:00:00")
+                .param("to", "2030-01-10T00:00:00");
+
+        mockMvc.perform(requestBuilder)
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.length()").value(2),
+                        jsonPath("$[0].end[2]").value(3),
+                        jsonPath("$[1].start[2]").value(5)
+                );
+
+        verify(itemService).getAvailability(itemId, from, to);
+        verifyNoMoreInteractions(itemService);
+    }
+
     @Test
     @DisplayName("Обновление предмета - успешный сценарий")
     void update_ValidRequest_ReturnsOk() throws Exception {
@@ -188,9 +253,9 @@ public class ItemControllerTest {
 
         var items = List.of(item1, item2);
 
-        doReturn(items)
+        doReturn(new ItemSearchResult(items, "next"))
                 .when(itemService)
-                .searchItems(searchText);
+                .searchItems(searchText, null, 20, null, null);
 
         var requestBuilder = MockMvcRequestBuilders.get("/items/search")
                 .param("text", searchText);
@@ -201,10 +266,11 @@ public class ItemControllerTest {
                         jsonPath("$[0].id").value(1),
                         jsonPath("$[0].name").value("Test Item 1"),
                         jsonPath("$[1].id").value(2),
-                        jsonPath("$[1].name").value("Test Item 2")
+                        jsonPath("$[1].name").value("Test Item 2"),
+                        header().string(ItemController.NEXT_CURSOR, "next")
                 );
 
-        verify(itemService).searchItems(searchText);
+        verify(itemService).searchItems(searchText, null, 20, null, null);
         verifyNoMoreInteractions(itemService);
     }
 
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ValidationException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Одобрение бронирования одним условным обновлением")
+public class BookingApprovalRaceIT {
+
+    private static final long ITEM_ID = 2L;
+    private static final long OWNER_ID = 4L;
+    private static final long BOOKER_ID = 1L;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime day = LocalDateTime.now().plusYears(1).withNano(0);
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // одобрения фиксируются в своих транзакциях, а отметки вещи ссылаются на одобренные бронирования
+        jdbcTemplate.update("DELETE FROM item_booking_marks WHERE item_id = ?", ITEM_ID);
+        bookingIds.forEach(id -> jdbcTemplate.update("DELETE FROM bookings WHERE id = ?", id));
+    }
+
+    @Test
+    @DisplayName("Из двух одновременных одобрений проходит ровно одно")
+    void setBookingApproval_ConcurrentApprovals_ExactlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long bookingId = insertWaitingBooking(round);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> approvals = List.of(
+                        executor.submit(() -> approveAfter(start, bookingId)),
+                        executor.submit(() -> approveAfter(start, bookingId)));
+                start.countDown();
+
+                int succeeded = 0;
+                for (Future<?> approval : approvals) {
+                    try {
+                        approval.get();
+                        succeeded++;
+                    } catch (ExecutionException e) {
+                        assertInstanceOf(ValidationException.class, e.getCause());
+                    }
+                }
+                assertEquals(1, succeeded);
+                assertEquals("APPROVED", jdbcTemplate.queryForObject(
+                        "SELECT status FROM bookings WHERE id = ?", String.class, bookingId));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Решение по ожидающему бронированию принимается одним UPDATE без предварительного чтения")
+    void setBookingApproval_WaitingBooking_DecidedByOneUpdate() {
+        long bookingId = insertWaitingBooking(0);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(BookingStatus.REJECTED, bookingService.setBookingApproval(OWNER_ID, bookingId, false).getStatus());
+
+        // UPDATE плюс чтение бронирования для ответа
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private void approveAfter(CountDownLatch start, long bookingId) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        bookingService.setBookingApproval(OWNER_ID, bookingId, true);
+    }
+
+    private long insertWaitingBooking(int round) {
+        long bookingId = jdbcTemplate.queryForObject("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                VALUES (?, ?, ?, ?, ?, 'WAITING') RETURNING id
+                """, Long.class, day.plusDays(2L * round), day.plusDays(2L * round + 1), ITEM_ID, BOOKER_ID, OWNER_ID);
+        bookingIds.add(bookingId);
+        return bookingId;
+    }
+}
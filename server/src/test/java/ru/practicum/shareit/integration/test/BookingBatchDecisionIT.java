@@ -0,0 +1,121 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Пакетное одобрение и отклонение бронирований")
+public class BookingBatchDecisionIT {
+
+    private static final long ITEM_ID = 2L;
+    private static final long OWNER_ID = 4L;
+    private static final long BOOKER_ID = 1L;
+    private static final int BATCH = 50;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime day = LocalDateTime.now().plusYears(1).withNano(0);
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @Test
+    @DisplayName("Пакет решается двумя UPDATE и одним пересчётом отметок вещей независимо от размера")
+    void setBookingApprovals_WaitingBookings_DecidedByOneUpdatePerStatus() {
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            decisions.add(new BookingDecisionDto(insertWaitingBooking(i), i % 2 == 0));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDecisionResult> results = bookingService.setBookingApprovals(OWNER_ID, decisions);
+
+        // решения по статусам, затем блокировка и пересчёт отметок одобренных вещей
+        assertEquals(4, statistics.getPrepareStatementCount());
+        for (int i = 0; i < BATCH; i++) {
+            BookingStatus expected = i % 2 == 0 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            assertEquals(new BookingDecisionResult(decisions.get(i).getBookingId(), BookingDecisionOutcome.APPLIED,
+                    expected), results.get(i));
+            assertEquals(expected.name(), jdbcTemplate.queryForObject(
+                    "SELECT status FROM bookings WHERE id = ?", String.class, decisions.get(i).getBookingId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Бронирования, которые нельзя решить, получают свой исход и не меняются")
+    void setBookingApprovals_MixedBatch_ReportsEachOutcome() {
+        long waiting = insertWaitingBooking(0);
+
+        // в начальных данных бронирование 1 одобрено и принадлежит вещи другого владельца, 2 ожидает
+        List<BookingDecisionResult> results = bookingService.setBookingApprovals(OWNER_ID, List.of(
+                new BookingDecisionDto(waiting, false),
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(999L, true)));
+
+        assertEquals(List.of(
+                new BookingDecisionResult(waiting, BookingDecisionOutcome.APPLIED, BookingStatus.REJECTED),
+                new BookingDecisionResult(1L, BookingDecisionOutcome.NOT_OWNER, null),
+                new BookingDecisionResult(2L, BookingDecisionOutcome.APPLIED, BookingStatus.APPROVED),
+                new BookingDecisionResult(999L, BookingDecisionOutcome.NOT_FOUND, null)), results);
+
+        List<BookingDecisionResult> repeated = bookingService.setBookingApprovals(OWNER_ID,
+                List.of(new BookingDecisionDto(2L, false)));
+        assertEquals(List.of(new BookingDecisionResult(2L, BookingDecisionOutcome.ALREADY_DECIDED,
+                BookingStatus.APPROVED)), repeated);
+        assertEquals("APPROVED", jdbcTemplate.queryForObject(
+                "SELECT status FROM bookings WHERE id = 2", String.class));
+    }
+
+    private long insertWaitingBooking(int slot) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                VALUES (?, ?, ?, ?, ?, 'WAITING') RETURNING id
+                """, Long.class, day.plusDays(2L * slot), day.plusDays(2L * slot + 1), ITEM_ID, BOOKER_ID, OWNER_ID);
+    }
+}
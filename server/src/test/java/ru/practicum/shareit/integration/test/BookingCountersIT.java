@@ -0,0 +1,155 @@
+package ru.practicum.shareit.integration.test;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCounterJob;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ResourceNotFoundException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+@DisplayName("Счётчики бронирований пользователя по состояниям")
+public class BookingCountersIT {
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingCounterJob counterJob;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    // свои пользователи и вещь, чтобы счётчики не зависели от бронирований других тестов
+    @BeforeEach
+    void setUp() {
+        ownerId = insertUser();
+        bookerId = insertUser();
+        itemId = jdbcTemplate.queryForObject("""
+                INSERT INTO items (name, description, is_available, owner_id)
+                VALUES ('Пила', 'Цепная пила', true, ?) RETURNING id
+                """, Long.class, ownerId);
+    }
+
+    @Test
+    @DisplayName("Новое бронирование считается ожидающим и будущим у арендатора и владельца")
+    void createBooking_CountsWaitingFutureBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        bookingService.createBooking(bookerId, booking(start));
+        bookingService.createBooking(bookerId, booking(start.plusDays(2)));
+
+        BookingCountsDto expected = new BookingCountsDto(2, 0, 0, 2, 2, 0);
+        assertEquals(expected, bookingService.countBookings(bookerId, BookingRole.BOOKER));
+        assertEquals(expected, bookingService.countBookings(ownerId, BookingRole.OWNER));
+        assertEquals(new BookingCountsDto(), bookingService.countBookings(ownerId, BookingRole.BOOKER));
+    }
+
+    @Test
+    @DisplayName("Одобрение и отклонение убирают бронирование из ожидающих")
+    void setBookingApproval_MovesBookingOutOfWaiting() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        long approvedId = bookingService.createBooking(bookerId, booking(start)).getId();
+        long rejectedId = bookingService.createBooking(bookerId, booking(start.plusDays(2))).getId();
+
+        bookingService.setBookingApproval(ownerId, approvedId, true);
+        bookingService.setBookingApproval(ownerId, rejectedId, false);
+
+        assertEquals(new BookingCountsDto(2, 0, 0, 2, 0, 1),
+                bookingService.countBookings(ownerId, BookingRole.OWNER));
+
+        // повторное одобрение отклонённого бронирования
+        bookingService.setBookingApproval(ownerId, rejectedId, true);
+
+        assertEquals(new BookingCountsDto(2, 0, 0, 2, 0, 0),
+                bookingService.countBookings(bookerId, BookingRole.BOOKER));
+    }
+
+    @Test
+    @DisplayName("Задание переносит начавшиеся бронирования в текущие, а закончившиеся — в прошлые")
+    void moveClock_MovesStartedAndEndedBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        bookingService.createBooking(bookerId, booking(start));
+
+        counterJob.moveClock(start.plusHours(1));
+        assertEquals(new BookingCountsDto(1, 1, 0, 0, 1, 0),
+                bookingService.countBookings(bookerId, BookingRole.BOOKER));
+
+        counterJob.moveClock(start.plusDays(1).plusHours(1));
+        assertEquals(new BookingCountsDto(1, 0, 1, 0, 1, 0),
+                bookingService.countBookings(ownerId, BookingRole.OWNER));
+        assertEquals(0, counterJob.moveClock(start.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Бронирования одного INSERT у нового пользователя считаются по одному разу")
+    void insertBookings_CountsMultiRowInsertOnce() {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        jdbcTemplate.update("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                VALUES (?, ?, ?, ?, ?, 'WAITING'), (?, ?, ?, ?, ?, 'REJECTED')
+                """, start, start.plusDays(1), itemId, bookerId, ownerId,
+                start.plusDays(2), start.plusDays(3), itemId, bookerId, ownerId);
+
+        BookingCountsDto expected = new BookingCountsDto(2, 0, 0, 2, 1, 1);
+        assertEquals(expected, bookingService.countBookings(bookerId, BookingRole.BOOKER));
+        assertEquals(expected, bookingService.countBookings(ownerId, BookingRole.OWNER));
+    }
+
+    @Test
+    @DisplayName("Для неизвестного пользователя счётчики не возвращаются")
+    void countBookings_ThrowsForUnknownUser() {
+        assertThrows(ResourceNotFoundException.class, () -> bookingService.countBookings(999L, BookingRole.OWNER));
+    }
+
+    private BookingDto booking(LocalDateTime start) {
+        BookingDto booking = new BookingDto();
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(1));
+        booking.setItemId(itemId);
+        return booking;
+    }
+
+    private long insertUser() {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES (?, ?) RETURNING id", Long.class,
+                "Счётчик", UUID.randomUUID() + "@example.com");
+    }
+}
@@ -0,0 +1,216 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ResourceNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Slf4j
+@DisplayName("Задержка создания бронирования под конкурентной нагрузкой")
+public class BookingCreationLatencyIT {
+
+    private static final long BOOKER_ID = 1L;
+    private static final long OWNER_ID = 3L;
+    private static final int ITEMS = 8;
+    private static final int THREADS = 8;
+    private static final int WARMUP_REQUESTS = 200;
+    private static final int MEASURED_REQUESTS = 800;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final LocalDateTime base = LocalDateTime.now().plusYears(1).withNano(0);
+    private final AtomicInteger slot = new AtomicInteger();
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(jdbcTemplate.queryForObject("""
+                    INSERT INTO items (name, description, is_available, owner_id)
+                    VALUES (?, 'Предмет для замера', true, ?) RETURNING id
+                    """, Long.class, "Замер " + i + " " + System.nanoTime(), OWNER_ID));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // запросы фиксируются в своих транзакциях, поэтому откатывать нечего
+        for (Long itemId : itemIds) {
+            jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", itemId);
+            jdbcTemplate.update("DELETE FROM items WHERE id = ?", itemId);
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка одним запросом сокращает число обращений к базе и хвост задержки")
+    void createBooking_ValidatesInOneRoundTripUnderConcurrentLoad() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        run(WARMUP_REQUESTS, this::createWithSeparateLookups);
+        statistics.clear();
+        long[] separate = run(MEASURED_REQUESTS, this::createWithSeparateLookups);
+        double separateStatements = (double) statistics.getPrepareStatementCount() / MEASURED_REQUESTS;
+
+        run(WARMUP_REQUESTS, this::createWithSingleLookup);
+        statistics.clear();
+        long[] single = run(MEASURED_REQUESTS, this::createWithSingleLookup);
+        double singleStatements = (double) statistics.getPrepareStatementCount() / MEASURED_REQUESTS;
+
+        log.debug("separate lookups: p50 {} us, p99 {} us, {} statements/booking; "
+                        + "single lookup: p50 {} us, p99 {} us, {} statements/booking",
+                percentile(separate, 50) / 1000, percentile(separate, 99) / 1000, separateStatements,
+                percentile(single, 50) / 1000, percentile(single, 99) / 1000, singleStatements);
+        assertTrue(singleStatements + 1 < separateStatements);
+    }
+
+    /**
+     * The checks createBooking made before the projection query: existsById for the user and the item,
+     * then the item itself for availability and owner. Events are left out,
+     * so this side is, if anything, cheaper than the real endpoint.
+     */
+    private void createWithSeparateLookups(long itemId, LocalDateTime start) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!userRepository.existsById(BOOKER_ID)) {
+                throw new ResourceNotFoundException("User not found with ID: " + BOOKER_ID);
+            }
+            if (!itemRepository.existsById(itemId)) {
+                throw new ResourceNotFoundException("Item not found with ID: " + itemId);
+            }
+            if (!itemRepository.getReferenceById(itemId).getAvailable()) {
+                throw new ValidationException("The item is not available for booking.");
+            }
+            if (itemRepository.getReferenceById(itemId).getOwner() == BOOKER_ID) {
+                throw new ResourceNotFoundException("User cannot book own item");
+            }
+
+            Booking booking = new Booking();
+            booking.setStart(start);
+            booking.setEnd(start.plusHours(1));
+            booking.setBooker(userRepository.getReferenceById(BOOKER_ID));
+            booking.setItem(itemRepository.getReferenceById(itemId));
+            booking.setOwner(itemRepository.getReferenceById(itemId).getOwner());
+            booking.setStatus(BookingStatus.WAITING);
+            bookingRepository.saveAndFlush(booking);
+        });
+    }
+
+    private void createWithSingleLookup(long itemId, LocalDateTime start) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(itemId);
+        bookingDto.setStart(start);
+        bookingDto.setEnd(start.plusHours(1));
+        bookingService.createBooking(BOOKER_ID, bookingDto);
+    }
+
+    private long[] run(int requests, BookingCreation creation) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> drain(next, requests, creation, latencies)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return latencies;
+    }
+
+    private void drain(AtomicInteger next, int requests, BookingCreation creation, long[] latencies) {
+        int request;
+        while ((request = next.getAndIncrement()) < requests) {
+            // у каждого запроса своё окно, чтобы бронирования не пересекались
+            int window = slot.getAndIncrement();
+            long itemId = itemIds.get(window % ITEMS);
+            LocalDateTime start = base.plusHours(2L * window);
+
+            long begin = System.nanoTime();
+            creation.create(itemId, start);
+            latencies[request] = System.nanoTime() - begin;
+        }
+    }
+
+    private static long percentile(long[] latencies, int percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    @FunctionalInterface
+    private interface BookingCreation {
+        void create(long itemId, LocalDateTime start);
+    }
+}
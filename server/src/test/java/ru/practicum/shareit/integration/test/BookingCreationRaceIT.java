@@ -0,0 +1,113 @@
+package ru.practicum.shareit.integration.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+// без @Transactional: каждое бронирование фиксируется в своей транзакции, как при запросах от двух клиентов
+@SpringBootTest
+@DisplayName("Одновременное создание пересекающихся бронирований")
+public class BookingCreationRaceIT {
+
+    private static final long ITEM_ID = 2L;
+    private static final long BOOKER_ID = 1L;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime day = LocalDateTime.now().plusYears(2).withNano(0);
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ? AND start_date >= ?", ITEM_ID, day);
+    }
+
+    @Test
+    @DisplayName("Из двух одновременных пересекающихся бронирований создаётся ровно одно, второе получает 409")
+    void createBooking_ConcurrentOverlappingBookings_ExactlyOneConflicts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDateTime start = day.plusDays(3L * round);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> bookings = List.of(
+                        executor.submit(() -> bookAfter(go, start, start.plusDays(2))),
+                        executor.submit(() -> bookAfter(go, start.plusDays(1), start.plusDays(3))));
+                go.countDown();
+
+                int conflicts = 0;
+                for (Future<?> booking : bookings) {
+                    try {
+                        booking.get();
+                    } catch (ExecutionException e) {
+                        // ErrorHandler отвечает на ConflictException статусом 409
+                        assertInstanceOf(ConflictException.class, e.getCause());
+                        conflicts++;
+                    }
+                }
+                assertEquals(1, conflicts);
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM bookings WHERE item_id = ? AND start_date >= ? AND start_date < ?",
+                        Integer.class, ITEM_ID, start, start.plusDays(3)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void bookAfter(CountDownLatch go, LocalDateTime start, LocalDateTime end) {
+        try {
+            go.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(ITEM_ID);
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        bookingService.createBooking(BOOKER_ID, bookingDto);
+    }
+}
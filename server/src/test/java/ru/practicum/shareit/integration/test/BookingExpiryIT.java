@@ -0,0 +1,133 @@
+package ru.practicum.shareit.integration.test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingExpiryJob;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "shareit.booking.expiry.batch-size=20")
+@DisplayName("Истечение ожидающих бронирований, начало которых прошло")
+public class BookingExpiryIT {
+
+    private static final long ITEM_ID = 2L;
+    private static final long OWNER_ID = 4L;
+    private static final long BOOKER_ID = 1L;
+    private static final int STALE = 200;
+
+    // раньше начальных данных, чтобы их ожидающее бронирование осталось нетронутым
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 1, 12, 0);
+
+    @Autowired
+    BookingExpiryJob expiryJob;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // пакеты фиксируются в своих транзакциях
+        bookingIds.forEach(id -> jdbcTemplate.update("DELETE FROM bookings WHERE id = ?", id));
+    }
+
+    @Test
+    @DisplayName("Истекают только начавшиеся ожидающие бронирования, и их интервал освобождается")
+    void expireStaleBookings_ExpiresStartedWaitingBookingsOnly() {
+        long started = insertBooking(NOW.minusDays(1), NOW.plusDays(1), "WAITING");
+        long upcoming = insertBooking(NOW.plusDays(2), NOW.plusDays(3), "WAITING");
+        long approved = insertBooking(NOW.minusDays(5), NOW.minusDays(4), "APPROVED");
+
+        assertEquals(1, expiryJob.expireStaleBookings(NOW));
+
+        assertEquals("EXPIRED", statusOf(started));
+        assertEquals("WAITING", statusOf(upcoming));
+        assertEquals("APPROVED", statusOf(approved));
+        // исключающее ограничение больше не держит интервал истёкшего бронирования
+        insertBooking(NOW.minusDays(1), NOW.plusDays(1), "WAITING");
+    }
+
+    @Test
+    @DisplayName("Параллельные запуски разбирают разные пакеты и не обрабатывают бронирование дважды")
+    void expireStaleBookings_ConcurrentRuns_SplitBacklog() throws Exception {
+        for (int i = 0; i < STALE; i++) {
+            LocalDateTime start = NOW.minusYears(1).plusDays(i);
+            insertBooking(start, start.plusHours(1), "WAITING");
+        }
+        double expiredBefore = meterRegistry.get("shareit.booking.expiry.expired").counter().count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> runs = List.of(
+                    executor.submit(() -> expireAfter(start)),
+                    executor.submit(() -> expireAfter(start)));
+            start.countDown();
+
+            assertEquals(STALE, runs.get(0).get() + runs.get(1).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(STALE, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE status = 'EXPIRED' AND start_date <= ?", Integer.class, NOW));
+        assertEquals(STALE, meterRegistry.get("shareit.booking.expiry.expired").counter().count() - expiredBefore);
+        assertEquals(0.0, meterRegistry.get("shareit.booking.expiry.backlog").gauge().value());
+    }
+
+    private int expireAfter(CountDownLatch start) throws InterruptedException {
+        start.await();
+        return expiryJob.expireStaleBookings(NOW);
+    }
+
+    private String statusOf(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+
+    private long insertBooking(LocalDateTime start, LocalDateTime end, String status) {
+        long bookingId = jdbcTemplate.queryForObject("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                VALUES (?, ?, ?, ?, ?, ?) RETURNING id
+                """, Long.class, start, end, ITEM_ID, BOOKER_ID, OWNER_ID, status);
+        bookingIds.add(bookingId);
+        return bookingId;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Число запросов к базе при выдаче списков бронирований")
+public class BookingListQueryCountIT {
+
+    private static final long OWNER_ID = 3L;
+    private static final long BOOKER_ID = 10_001L;
+    private static final int ITEMS = 30;
+    private static final int BOOKERS = 40;
+    private static final int BOOKINGS = 5_000;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        // вещи владельца с запросами и комментариями, которые в ответ о бронированиях не попадают
+        jdbcTemplate.update("""
+                INSERT INTO users (id, name, email)
+                SELECT 10000 + g, 'Арендатор ' || g, 'booker' || g || '@example.com' FROM generate_series(1, ?) g
+                """, BOOKERS);
+        jdbcTemplate.update("""
+                INSERT INTO items (id, name, description, is_available, owner_id, request_id)
+                SELECT 10000 + g, 'Вещь ' || g, 'Для подсчёта запросов', true, ?, 1 + g % 2
+                FROM generate_series(1, ?) g
+                """, OWNER_ID, ITEMS);
+        jdbcTemplate.update("""
+                INSERT INTO comments (text, item_id, author_id, created_at)
+                SELECT 'Отзыв ' || g, 10001 + g % ?, 1, TIMESTAMP '2024-01-01' FROM generate_series(1, 2 * ?) g
+                """, ITEMS, ITEMS);
+        jdbcTemplate.update("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                SELECT TIMESTAMP '2030-01-01' + g * INTERVAL '1 hour',
+                       TIMESTAMP '2030-01-01' + g * INTERVAL '1 hour' + INTERVAL '30 minutes',
+                       10001 + g % ?, 10001 + g % ?, ?, 'APPROVED'
+                FROM generate_series(1, ?) g
+                """, ITEMS, BOOKERS, OWNER_ID, BOOKINGS);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner: страница с названиями вещей и именами арендаторов одним запросом")
+    void getOwnerBookings_LoadsPageInOneStatement() throws Exception {
+        assertStatements(1, "/bookings/owner?size=100", OWNER_ID, 100);
+    }
+
+    @Test
+    @DisplayName("GET /bookings: страница арендатора одним запросом")
+    void getBookerBookings_LoadsPageInOneStatement() throws Exception {
+        assertStatements(1, "/bookings?size=100", BOOKER_ID, 100);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/: страница всех бронирований арендатора одним запросом")
+    void getAllBookerBookings_LoadsPageInOneStatement() throws Exception {
+        // у арендатора BOOKINGS / BOOKERS бронирований, больше одной страницы
+        assertStatements(1, "/bookings/?size=100", BOOKER_ID, 100);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/{id}: бронирование одним запросом")
+    void getBooking_LoadsBookingInOneStatement() throws Exception {
+        long bookingId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM bookings WHERE booker_id = ?", Long.class, BOOKER_ID);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/bookings/{bookingId}", bookingId)
+                        .header("X-Sharer-User-Id", OWNER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name").exists())
+                .andExpect(jsonPath("$.booker.id").value(BOOKER_ID));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertStatements(int expected, String path, long userId, int bookings) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(MockMvcRequestBuilders.get(path).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(bookings))
+                .andExpect(jsonPath("$[0].item.name").exists())
+                .andExpect(jsonPath("$[0].item.comments").doesNotExist())
+                .andExpect(jsonPath("$[0].booker.name").exists())
+                .andExpect(jsonPath("$[0].booker.email").doesNotExist());
+
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
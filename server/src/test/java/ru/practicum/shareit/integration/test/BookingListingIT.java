@@ -0,0 +1,171 @@
+package ru.practicum.shareit.integration.test;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.ResourceNotFoundException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+@DisplayName("Списки бронирований по роли и состоянию")
+public class BookingListingIT {
+
+    private static final long BOOKER_ID = 2L;
+    private static final long OWNER_ID = 3L;
+    private static final long ITEM_ID = 1L;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private long past;
+    private long current;
+    private long futureWaiting;
+    private long futureRejected;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        past = insertBooking(now.minusDays(10), now.minusDays(9), "APPROVED");
+        current = insertBooking(now.minusDays(1), now.plusDays(1), "APPROVED");
+        futureWaiting = insertBooking(now.plusDays(5), now.plusDays(6), "WAITING");
+        futureRejected = insertBooking(now.plusDays(7), now.plusDays(8), "REJECTED");
+    }
+
+    @Test
+    @DisplayName("Каждое состояние арендатора отбирает свои бронирования, новые первыми")
+    void findBookings_FiltersBookerBookingsByState() {
+        assertEquals(List.of(futureRejected, futureWaiting, current, past), ids(BookingRole.BOOKER, "ALL"));
+        assertEquals(List.of(current), ids(BookingRole.BOOKER, "CURRENT"));
+        assertEquals(List.of(past), ids(BookingRole.BOOKER, "PAST"));
+        assertEquals(List.of(futureRejected, futureWaiting), ids(BookingRole.BOOKER, "FUTURE"));
+        assertEquals(List.of(futureWaiting), ids(BookingRole.BOOKER, "WAITING"));
+        assertEquals(List.of(futureRejected), ids(BookingRole.BOOKER, "REJECTED"));
+    }
+
+    @Test
+    @DisplayName("Каждое состояние владельца отбирает бронирования всех его вещей")
+    void findBookings_FiltersOwnerBookingsByState() {
+        // в начальных данных у владельца уже есть прошедшие бронирования 1 (одобрено) и 3 (отклонено)
+        assertEquals(List.of(futureRejected, futureWaiting, current, past, 3L, 1L), ids(BookingRole.OWNER, "ALL"));
+        assertEquals(List.of(current), ids(BookingRole.OWNER, "CURRENT"));
+        assertEquals(List.of(past, 3L, 1L), ids(BookingRole.OWNER, "PAST"));
+        assertEquals(List.of(futureRejected, futureWaiting), ids(BookingRole.OWNER, "FUTURE"));
+        assertEquals(List.of(futureWaiting), ids(BookingRole.OWNER, "WAITING"));
+        assertEquals(List.of(futureRejected, 3L), ids(BookingRole.OWNER, "REJECTED"));
+    }
+
+    @Test
+    @DisplayName("Бронирования вещи переходят к новому владельцу вместе с вещью")
+    void findBookings_FollowsItemOwnerChange() {
+        jdbcTemplate.update("UPDATE items SET owner_id = 4 WHERE id = ?", ITEM_ID);
+
+        assertEquals(List.of(3L), ids(BookingRole.OWNER, "ALL"));
+        // у нового владельца есть и своё бронирование 2 от 2023-08-01
+        assertEquals(List.of(futureRejected, futureWaiting, current, past, 2L, 1L),
+                bookingService.findBookings(4L, BookingRole.OWNER, "ALL", null, 0, 10).getBookings().stream()
+                        .map(BookingResponseDto::getId)
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Владелец в бронировании не может расходиться с владельцем вещи")
+    void insertBooking_RejectsOwnerOtherThanItemOwner() {
+        LocalDateTime start = LocalDateTime.now().plusDays(20);
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status) "
+                        + "VALUES (?, ?, ?, ?, 4, 'WAITING')", start, start.plusDays(1), ITEM_ID, BOOKER_ID));
+    }
+
+    @Test
+    @DisplayName("Страница отсчитывается от начала отсортированного списка")
+    void findBookings_ReturnsRequestedPage() {
+        BookingPage page = bookingService.findBookings(OWNER_ID, BookingRole.OWNER, "ALL", null, 1, 2);
+
+        assertEquals(List.of(futureWaiting, current), page.getBookings().stream().map(BookingResponseDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Курсор продолжает список с места остановки, пока бронирования не закончатся")
+    void findBookings_WalksListWithCursor() {
+        // бронирование с тем же началом, что и текущее: порядок между ними задаёт id
+        long sameStart = jdbcTemplate.queryForObject("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                SELECT start_date, end_date, 2, booker_id, 4, status FROM bookings WHERE id = ? RETURNING id
+                """, Long.class, current);
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPage page = bookingService.findBookings(BOOKER_ID, BookingRole.BOOKER, "ALL", cursor, 0, 2);
+            page.getBookings().forEach(booking -> walked.add(booking.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(futureRejected, futureWaiting, sameStart, current, past), walked);
+    }
+
+    @Test
+    @DisplayName("Пустой список для существующего пользователя и 404 для несуществующего")
+    void findBookings_DistinguishesEmptyListFromUnknownUser() {
+        assertTrue(bookingService.findBookings(OWNER_ID, BookingRole.BOOKER, "FUTURE", null, 0, 10)
+                .getBookings().isEmpty());
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.findBookings(999L, BookingRole.OWNER, "ALL", null, 0, 10));
+    }
+
+    private List<Long> ids(BookingRole role, String state) {
+        long userId = role == BookingRole.OWNER ? OWNER_ID : BOOKER_ID;
+        return bookingService.findBookings(userId, role, state, null, 0, 100).getBookings().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+
+    private long insertBooking(LocalDateTime start, LocalDateTime end, String status) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                VALUES (?, ?, ?, ?, ?, ?) RETURNING id
+                """, Long.class, start, end, ITEM_ID, BOOKER_ID, OWNER_ID, status);
+    }
+}
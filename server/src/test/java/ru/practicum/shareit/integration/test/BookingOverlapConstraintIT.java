@@ -0,0 +1,98 @@
+package ru.practicum.shareit.integration.test;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+@DisplayName("Ограничение базы данных на пересекающиеся бронирования")
+public class BookingOverlapConstraintIT {
+
+    private static final long ITEM_ID = 2L;
+    private static final long OWNER_ID = 4L;
+    private static final long BOOKER_ID = 1L;
+
+    private final LocalDateTime day = LocalDateTime.now().plusYears(1).withNano(0);
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @Test
+    @DisplayName("Пересекающаяся вставка в обход приложения отклоняется базой")
+    void insert_OverlappingActiveBooking_IsRejectedByDatabase() {
+        insertBooking(day, day.plusDays(2), "APPROVED");
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> insertBooking(day.plusDays(1), day.plusDays(3), "WAITING"));
+    }
+
+    @Test
+    @DisplayName("Отклонённые бронирования и смежные интервалы не мешают друг другу")
+    void insert_RejectedOrAdjacentBooking_IsAccepted() {
+        insertBooking(day, day.plusDays(2), "APPROVED");
+
+        assertDoesNotThrow(() -> insertBooking(day.plusDays(1), day.plusDays(3), "REJECTED"));
+        assertDoesNotThrow(() -> insertBooking(day.plusDays(2), day.plusDays(3), "WAITING"));
+    }
+
+    @Test
+    @DisplayName("Нарушение ограничения при создании бронирования превращается в конфликт")
+    void createBooking_OverlapWithBookingFromAnotherNode_ThrowsConflict() {
+        bookingService.createBooking(BOOKER_ID, bookingDto(day, day.plusDays(1)));
+        // бронирование, созданное другим узлом в обход этого приложения
+        insertBooking(day.plusDays(2), day.plusDays(4), "WAITING");
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(BOOKER_ID, bookingDto(day.plusDays(3), day.plusDays(5))));
+    }
+
+    private void insertBooking(LocalDateTime start, LocalDateTime end, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", start, end, ITEM_ID, BOOKER_ID, OWNER_ID, status);
+    }
+
+    private static BookingDto bookingDto(LocalDateTime start, LocalDateTime end) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(ITEM_ID);
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        return bookingDto;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Сравнение числа запросов при пакетном и поштучном добавлении предметов")
+public class ItemBatchInsertIT {
+
+    private static final long OWNER_ID = 3L;
+    private static final int BATCH_SIZE = 100;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private int sequence;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @Test
+    @DisplayName("Пакетное добавление отправляет в разы меньше запросов, чем поштучное")
+    void saveItems_PreparesFarFewerStatementsThanSaveItem() {
+        long single = statementsPerRound(() -> {
+            for (ItemDto itemDto : newItems()) {
+                itemService.saveItem(OWNER_ID, itemDto);
+            }
+        });
+        long batch = statementsPerRound(() -> assertEquals(BATCH_SIZE,
+                itemService.saveItems(OWNER_ID, newItems()).size()));
+
+        // поштучно: чтение комментариев на каждый новый предмет;
+        // пакетом: одна проверка, nextval на 50 идентификаторов и INSERT, отправляемый пакетами
+        assertTrue(single >= BATCH_SIZE);
+        assertTrue(batch * 10 <= BATCH_SIZE);
+    }
+
+    private long statementsPerRound(Runnable insert) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < ROUNDS; i++) {
+            insert.run();
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return statistics.getPrepareStatementCount() / ROUNDS;
+    }
+
+    private List<ItemDto> newItems() {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sequence++;
+            items.add(ItemDto.builder()
+                    .name("Предмет " + sequence)
+                    .description("Описание предмета " + sequence)
+                    .available(true)
+                    .build());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.integration.test;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemBookingMarksJob;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@Transactional
+@DisplayName("Отметки последнего и следующего бронирования вещи")
+public class ItemBookingMarksIT {
+
+    private static final long ITEM_ID = 1L;
+    private static final long OWNER_ID = 3L;
+    private static final long BOOKER_ID = 1L;
+    // одобренное бронирование вещи 1 из начальных данных
+    private static final long PAST_BOOKING_ID = 1L;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemBookingMarksJob marksJob;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @Test
+    @DisplayName("Одобрение записывает бронирование следующим, владелец видит его в списке вещей")
+    void setBookingApproval_MarksApprovedBookingAsNext() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        long bookingId = insertWaitingBooking(start);
+
+        bookingService.setBookingApproval(OWNER_ID, bookingId, true);
+
+        Map<String, Object> marks = marks();
+        assertEquals(PAST_BOOKING_ID, marks.get("last_booking_id"));
+        assertEquals(bookingId, marks.get("next_booking_id"));
+        assertEquals(start, ((Timestamp) marks.get("next_start")).toLocalDateTime());
+
+        ItemDto item = ownerItem();
+        assertEquals(PAST_BOOKING_ID, item.getLastBooking().getId());
+        assertEquals(bookingId, item.getNextBooking().getId());
+    }
+
+    @Test
+    @DisplayName("Задание переносит начавшееся следующее бронирование в последние")
+    void advanceBookingMarks_MovesStartedNextBookingToLast() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5);
+        long bookingId = insertWaitingBooking(start);
+        bookingService.setBookingApproval(OWNER_ID, bookingId, true);
+
+        assertEquals(0, marksJob.advanceBookingMarks(start.minusHours(1)));
+        assertEquals(1, marksJob.advanceBookingMarks(start.plusHours(1)));
+
+        Map<String, Object> marks = marks();
+        assertEquals(bookingId, marks.get("last_booking_id"));
+        assertNull(marks.get("next_booking_id"));
+        assertNull(marks.get("next_start"));
+    }
+
+    @Test
+    @DisplayName("Проверка восстанавливает расходящиеся отметки и создаёт недостающие")
+    void checkBookingMarks_RepairsDriftAndCreatesMissingMarks() {
+        long bookingId = insertWaitingBooking(LocalDateTime.now().plusDays(5));
+        bookingService.setBookingApproval(OWNER_ID, bookingId, true);
+        jdbcTemplate.update("UPDATE item_booking_marks SET last_booking_id = NULL WHERE item_id = ?", ITEM_ID);
+        // список владельца читает отметки, а не пересчитывает их
+        assertNull(ownerItem().getLastBooking());
+
+        marksJob.checkBookingMarks(LocalDateTime.now());
+
+        assertEquals(PAST_BOOKING_ID, marks().get("last_booking_id"));
+        assertEquals(PAST_BOOKING_ID, ownerItem().getLastBooking().getId());
+        assertEquals(0, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM items i
+                WHERE NOT EXISTS (SELECT 1 FROM item_booking_marks m WHERE m.item_id = i.id)
+                """, Integer.class));
+        assertEquals(0, marksJob.checkBookingMarks(LocalDateTime.now()));
+    }
+
+    private ItemDto ownerItem() {
+        return itemService.findItemsByOwner(OWNER_ID).stream()
+                .filter(item -> item.getId() == ITEM_ID)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Map<String, Object> marks() {
+        return jdbcTemplate.queryForMap("SELECT * FROM item_booking_marks WHERE item_id = ?", ITEM_ID);
+    }
+
+    private long insertWaitingBooking(LocalDateTime start) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+                VALUES (?, ?, ?, ?, ?, 'WAITING') RETURNING id
+                """, Long.class, start, start.plusDays(1), ITEM_ID, BOOKER_ID, OWNER_ID);
+    }
+}
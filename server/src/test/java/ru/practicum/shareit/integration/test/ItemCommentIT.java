@@ -0,0 +1,79 @@
+package ru.practicum.shareit.integration.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// без @Transactional: транзакция теста держала бы сессию открытой, а open-in-view выключен
+@SpringBootTest(properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+@DisplayName("Добавление комментария без open-in-view")
+public class ItemCommentIT {
+
+    private static final long ITEM_ID = 1L;
+    // у пользователя 3 есть завершённое одобренное бронирование вещи 1 из начальных данных
+    private static final long AUTHOR_ID = 3L;
+    private static final String TEXT = "Комментарий без open-in-view";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM comments WHERE text = ?", TEXT);
+    }
+
+    @Test
+    @DisplayName("Комментарий сохраняется и возвращается с именем автора")
+    void addComment_SavesCommentOutsideOpenSession() throws Exception {
+        var requestBuilder = MockMvcRequestBuilders.post("/items/{itemId}/comment", ITEM_ID)
+                .header("X-Sharer-User-Id", AUTHOR_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\": \"" + TEXT + "\"}");
+
+        this.mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.text").value(TEXT))
+                .andExpect(jsonPath("$.authorName").value("Иван Иванов"));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM comments WHERE item_id = ? AND author_id = ? AND text = ?",
+                Integer.class, ITEM_ID, AUTHOR_ID, TEXT));
+    }
+}
@@ -75,4 +75,14 @@ public class ItemControllerIT {
                 .andExpect(jsonPath("$.comments").isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Поиск по умолчанию находит вещь по части слова")
+    void searchItems_DefaultMode_MatchesPartialWord() throws Exception {
+        var requestBuilder = MockMvcRequestBuilders.get("/items/search")
+                .param("text", "дре");
+
+        this.mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == 1)].name").value("Дрель"));
+    }
+}
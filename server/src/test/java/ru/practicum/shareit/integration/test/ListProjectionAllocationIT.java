@@ -0,0 +1,154 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+@Slf4j
+@DisplayName("Сравнение аллокаций: сущности против проекций в списочных запросах")
+public class ListProjectionAllocationIT {
+
+    private static final int ROWS = 500;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+    private static final long OWNER_ID = 3L;
+    private static final long REQUESTER_ID = 1L;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ItemRequestRepository requestRepository;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email)
+                SELECT 'Пользователь ' || n, 'bench' || n || '@example.com' FROM generate_series(1, ?) n
+                """, ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO requests (description, requester_id, created)
+                SELECT 'Запрос ' || n, 2, now() - n * interval '1 minute' FROM generate_series(1, ?) n
+                """, ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO items (name, description, is_available, owner_id)
+                SELECT 'Предмет ' || n, 'Описание предмета ' || n, true, ? FROM generate_series(1, ?) n
+                """, OWNER_ID, ROWS);
+    }
+
+    @Test
+    @DisplayName("Список пользователей через DTO-проекцию аллоцирует меньше, чем через сущности")
+    void getAllUsers_ProjectionAllocatesLessThanEntities() {
+        long entityBytes = allocatedBytesPerCall(() -> UserMapper.mapToUserDto(userRepository.findAll()));
+        long projectionBytes = allocatedBytesPerCall(() -> userRepository.findAllUserDtos());
+
+        report("users", entityBytes, projectionBytes);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    @Test
+    @DisplayName("Список предметов владельца через проекцию аллоцирует меньше, чем через сущности")
+    void findItemsByOwner_ProjectionAllocatesLessThanEntities() {
+        long entityBytes = allocatedBytesPerCall(() -> entityManager
+                .createQuery("SELECT i FROM Item i WHERE i.owner = :ownerId ORDER BY i.id", Item.class)
+                .setParameter("ownerId", OWNER_ID)
+                .getResultList().stream()
+                .map(item -> ItemMapper.mapToItemDto(item, List.of()))
+                .toList());
+        long projectionBytes = allocatedBytesPerCall(() -> itemRepository.findViewsByOwner(OWNER_ID).stream()
+                .map(item -> ItemMapper.mapViewToItemDto(item, List.of()))
+                .toList());
+
+        report("items by owner", entityBytes, projectionBytes);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    @Test
+    @DisplayName("Список чужих запросов через проекцию аллоцирует меньше, чем через сущности")
+    void getAllRequests_ProjectionAllocatesLessThanEntities() {
+        long entityBytes = allocatedBytesPerCall(() -> entityManager
+                .createQuery("SELECT r FROM ItemRequest r WHERE r.requester.id <> :userId ORDER BY r.created DESC",
+                        ItemRequest.class)
+                .setParameter("userId", REQUESTER_ID)
+                .getResultList().stream()
+                .map(request -> ItemRequestMapper.toDtoWithItems(request, List.of()))
+                .toList());
+        long projectionBytes = allocatedBytesPerCall(() -> requestRepository
+                .findViewsByRequesterIdNotOrderByCreatedDesc(REQUESTER_ID).stream()
+                .map(request -> ItemRequestMapper.viewToDtoWithItems(request, List.of()))
+                .toList());
+
+        report("requests", entityBytes, projectionBytes);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    private long allocatedBytesPerCall(Runnable query) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.run();
+            entityManager.clear();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            query.run();
+            entityManager.clear();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_ITERATIONS;
+    }
+
+    private static void report(String path, long entityBytes, long projectionBytes) {
+        log.debug("{}: entities {} B/call, projection {} B/call", path, entityBytes, projectionBytes);
+    }
+}
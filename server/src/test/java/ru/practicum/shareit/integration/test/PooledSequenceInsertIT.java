@@ -0,0 +1,132 @@
+package ru.practicum.shareit.integration.test;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@Slf4j
+@DisplayName("Скорость вставки с идентификаторами из pooled-lo последовательности")
+public class PooledSequenceInsertIT {
+
+    private static final int ROWS = 200;
+    private static final int ROUNDS = 5;
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private int sequence;
+
+    @BeforeAll
+    static void setupDatabase(@Autowired DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            String sqlScript = new String(Files.readAllBytes(
+                    Paths.get("src/test/resources/sql/starting_db.sql")));
+            statement.execute(sqlScript);
+        } catch (IOException e) {
+            throw new RuntimeException("Not found file");
+        }
+    }
+
+    @Test
+    @DisplayName("Вставка с pooled-lo идентификаторами обходится без обращения к базе на каждую строку")
+    void saveAll_NeedsFarFewerStatementsThanIdentityInserts() {
+        // IDENTITY: Hibernate отключает пакетную вставку и ждёт ключ после каждой строки,
+        // поэтому на каждую строку приходится отдельный запрос INSERT ... RETURNING id
+        long identity = nanosPerRow(() -> {
+            for (int i = 0; i < ROWS; i++) {
+                sequence++;
+                jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES (?, ?) RETURNING id",
+                        Long.class, "Пользователь " + sequence, "user" + sequence + "@example.com");
+            }
+        });
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long pooled = nanosPerRow(() -> userRepository.saveAll(newUsers()));
+        // nextval на каждые 50 идентификаторов и один INSERT, отправляемый пакетами
+        long statementsPerRound = statistics.getPrepareStatementCount() / (ROUNDS + 1);
+
+        log.debug("identity: {} us/row ({} rows/s, {} statements), pooled-lo: {} us/row ({} rows/s, {} statements)",
+                identity / 1000, 1_000_000_000L / identity, ROWS,
+                pooled / 1000, 1_000_000_000L / pooled, statementsPerRound);
+        assertTrue(statementsPerRound <= ROWS / ALLOCATION_SIZE + 1);
+    }
+
+    @Test
+    @DisplayName("Pooled-lo выдаёт идентификаторы подряд и обращается к последовательности раз на 50 строк")
+    void saveAll_TakesContiguousIdsFromOneNextvalPerAllocation() {
+        List<User> saved = userRepository.saveAll(newUsers());
+        entityManager.flush();
+
+        long firstId = saved.getFirst().getId();
+        for (int i = 0; i < saved.size(); i++) {
+            assertEquals(firstId + i, saved.get(i).getId());
+        }
+        long nextBlock = jdbcTemplate.queryForObject("SELECT nextval('users_id_seq')", Long.class);
+        assertEquals(firstId + (long) ROWS / ALLOCATION_SIZE * ALLOCATION_SIZE, nextBlock);
+    }
+
+    private long nanosPerRow(Runnable insert) {
+        insert.run();
+        entityManager.flush();
+        entityManager.clear();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            insert.run();
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return (System.nanoTime() - start) / ((long) ROUNDS * ROWS);
+    }
+
+    private List<User> newUsers() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            sequence++;
+            users.add(User.builder()
+                    .name("Пользователь " + sequence)
+                    .email("user" + sequence + "@example.com")
+                    .build());
+        }
+        return users;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingCounterJob;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCounterJobTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    @Mock private BookingRepository repository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingCounterJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BookingCounterJob(repository, transactionTemplate, meterRegistry, true);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation
+                -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void moveClock_CountsTransitionsSinceClockThenMovesIt() {
+        LocalDateTime countedAt = now.minusMinutes(1);
+        when(repository.lockCounterClock()).thenReturn(countedAt);
+        when(repository.countTimeTransitions(countedAt, now)).thenReturn(4);
+
+        assertEquals(4, job.moveClock(now));
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).lockCounterClock();
+        inOrder.verify(repository).countTimeTransitions(countedAt, now);
+        inOrder.verify(repository).moveCounterClock(now);
+        assertEquals(4.0, meterRegistry.get("shareit.booking.counters.moved").counter().count());
+    }
+
+    @Test
+    void moveClock_ClockAlreadyAhead_WritesNothing() {
+        when(repository.lockCounterClock()).thenReturn(now.plusSeconds(5));
+
+        assertEquals(0, job.moveClock(now));
+
+        verify(repository, never()).countTimeTransitions(any(), any());
+        verify(repository, never()).moveCounterClock(any());
+    }
+
+    @Test
+    void run_WhenDisabled_DoesNothing() {
+        BookingCounterJob disabled = new BookingCounterJob(repository, transactionTemplate, meterRegistry, false);
+
+        disabled.run();
+
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+}
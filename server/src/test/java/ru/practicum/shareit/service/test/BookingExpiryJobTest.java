@@ -0,0 +1,107 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingExpiryJob;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.dto.DecidedBookingView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpiryJobTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    @Mock private BookingRepository repository;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new BookingExpiryJob(repository, transactionTemplate, eventPublisher, meterRegistry, true, 2, 3);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation
+                -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void expireStaleBookings_StopsAfterShortBatch() {
+        when(repository.lockExpiredWaitingBookings(now, 2))
+                .thenReturn(expired(1, 2))
+                .thenReturn(expired(3));
+
+        assertEquals(3, job.expireStaleBookings(now));
+
+        verify(repository, times(2)).lockExpiredWaitingBookings(now, 2);
+        verify(repository).updateStatuses(List.of(1L, 2L), BookingStatus.EXPIRED);
+        verify(repository).updateStatuses(List.of(3L), BookingStatus.EXPIRED);
+        assertEquals(3.0, meterRegistry.get("shareit.booking.expiry.expired").counter().count());
+        assertEquals(2, meterRegistry.get("shareit.booking.expiry.batches").timer().count());
+    }
+
+    @Test
+    void expireStaleBookings_StopsAtMaxBatchesAndReportsBacklog() {
+        when(repository.lockExpiredWaitingBookings(now, 2)).thenReturn(expired(1, 2));
+        when(repository.countByStatusAndStartLessThanEqual(BookingStatus.WAITING, now)).thenReturn(7L);
+
+        assertEquals(6, job.expireStaleBookings(now));
+
+        verify(repository, times(3)).lockExpiredWaitingBookings(now, 2);
+        assertEquals(7.0, meterRegistry.get("shareit.booking.expiry.backlog").gauge().value());
+    }
+
+    @Test
+    void expireStaleBookings_PublishesExpiryOfEachBooking() {
+        when(repository.lockExpiredWaitingBookings(now, 2)).thenReturn(expired(5));
+
+        job.expireStaleBookings(now);
+
+        ArgumentCaptor<BookingStatusChangedEvent> event = ArgumentCaptor.forClass(BookingStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(5L, event.getValue().getBookingId());
+        assertEquals(50L, event.getValue().getItemId());
+        assertEquals(BookingStatus.EXPIRED, event.getValue().getStatus());
+    }
+
+    @Test
+    void run_WhenDisabled_DoesNothing() {
+        new BookingExpiryJob(repository, transactionTemplate, eventPublisher, meterRegistry, false, 2, 3).run();
+
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    private static List<DecidedBookingView> expired(long... bookingIds) {
+        return LongStream.of(bookingIds)
+                .mapToObj(id -> (DecidedBookingView) new DecidedBookingView() {
+                    @Override
+                    public Long getId() {
+                        return id;
+                    }
+
+                    @Override
+                    public Long getItemId() {
+                        return id * 10;
+                    }
+                })
+                .toList();
+    }
+}
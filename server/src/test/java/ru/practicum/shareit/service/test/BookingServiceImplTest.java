@@ -4,14 +4,31 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.booking.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingCountsView;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionOutcome;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOwnerStatusView;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingTargetView;
+import ru.practicum.shareit.booking.dto.DecidedBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
@@ -19,10 +36,12 @@ import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,12 +52,14 @@ public class BookingServiceImplTest {
     @Mock private BookingRepository bookingRepository;
     @Mock private ItemRepository itemRepository;
     @Mock private UserRepository userRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @InjectMocks private BookingServiceImpl bookingService;
 
     private BookingDto validBookingDto;
     private User user;
     private Item item;
     private Booking booking;
+    private BookingResponseDto response;
 
     @BeforeEach
     void setup() {
@@ -60,70 +81,209 @@ public class BookingServiceImplTest {
         booking.setItem(item);
         booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
+        booking.setOwner(2L);
+
+        response = response(booking.getId(), validBookingDto.getStart(), BookingStatus.WAITING);
     }
 
     @Test void createBooking_shouldThrowIfUserNotFound() {
-        when(userRepository.existsById(user.getId())).thenReturn(false);
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(false, true, true, item.getOwner()));
         assertThrows(ResourceNotFoundException.class,
                 () -> bookingService.createBooking(user.getId(), validBookingDto));
     }
 
     @Test void createBooking_shouldThrowIfItemNotFound() {
-        when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(itemRepository.existsById(item.getId())).thenReturn(false);
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, false, null, null));
         assertThrows(ResourceNotFoundException.class,
                 () -> bookingService.createBooking(user.getId(), validBookingDto));
     }
 
     @Test void createBooking_shouldThrowIfItemNotAvailable() {
-        item.setAvailable(false);
-        when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(itemRepository.existsById(item.getId())).thenReturn(true);
-        when(itemRepository.getById(item.getId())).thenReturn(item);
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, false, item.getOwner()));
         assertThrows(ValidationException.class,
                 () -> bookingService.createBooking(user.getId(), validBookingDto));
     }
 
     @Test void createBooking_shouldThrowIfStartIsInPast() {
         validBookingDto.setStart(LocalDateTime.now().minusDays(1));
-        when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(itemRepository.existsById(item.getId())).thenReturn(true);
-        when(itemRepository.getById(item.getId())).thenReturn(item);
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
         assertThrows(ValidationException.class,
                 () -> bookingService.createBooking(user.getId(), validBookingDto));
     }
 
     @Test void createBooking_shouldThrowIfEndBeforeStart() {
         validBookingDto.setEnd(validBookingDto.getStart().minusHours(1));
-        when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(itemRepository.existsById(item.getId())).thenReturn(true);
-        when(itemRepository.getById(item.getId())).thenReturn(item);
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
         assertThrows(ValidationException.class,
                 () -> bookingService.createBooking(user.getId(), validBookingDto));
     }
 
-    @Test void setBookingApproval_shouldApproveBooking() {
-        booking.setStatus(BookingStatus.WAITING);
+    @Test void createBooking_shouldThrowIfBookerOwnsItem() {
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, user.getId()));
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.createBooking(user.getId(), validBookingDto));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test void createBooking_shouldValidateWithSingleLookup() {
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        bookingService.createBooking(user.getId(), validBookingDto);
+
+        verify(bookingRepository).findBookingTarget(item.getId(), user.getId());
+        verify(userRepository, never()).existsById(anyLong());
+        verify(itemRepository, never()).existsById(anyLong());
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test void createBooking_shouldLeaveOverlapCheckToConstraint() {
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        BookingResponseDto result = bookingService.createBooking(user.getId(), validBookingDto);
+
+        assertEquals(BookingStatus.WAITING, result.getStatus());
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test void createBooking_shouldAnswerWithNamesFromValidationLookup() {
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+        BookingResponseDto result = bookingService.createBooking(user.getId(), validBookingDto);
+
+        assertEquals("Дрель", result.getItem().getName());
+        assertEquals(user.getId(), result.getBooker().getId());
+        assertEquals("Арендатор", result.getBooker().getName());
+        verify(bookingRepository, never()).findResponseById(anyLong());
+    }
+
+    @Test void createBooking_shouldThrowConflictIfNoOverlapConstraintIsViolated() {
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint \"bookings_no_overlap\"",
+                        "23P01")));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(user.getId(), validBookingDto));
+    }
+
+    @Test void createBooking_shouldRethrowOtherIntegrityViolations() {
+        when(bookingRepository.findBookingTarget(item.getId(), user.getId()))
+                .thenReturn(target(true, true, true, item.getOwner()));
+        when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+        when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+        when(bookingRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.createBooking(user.getId(), validBookingDto));
+    }
+
+    @Test void setBookingApproval_shouldApproveRejectedBookingConditionally() {
+        booking.setStatus(BookingStatus.REJECTED);
+        booking.setStart(validBookingDto.getStart());
+        booking.setEnd(validBookingDto.getEnd());
         item.setOwner(1L);
-        booking.setItem(item);
+        booking.setOwner(1L);
+        when(bookingRepository.updateStatusIfOwner(booking.getId(), 1L, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.updateStatusIfOwner(booking.getId(), 1L, BookingStatus.REJECTED, BookingStatus.APPROVED))
+                .thenReturn(1);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        Booking result = bookingService.setBookingApproval(1L, booking.getId(), true);
-        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        when(bookingRepository.findResponseById(booking.getId()))
+                .thenReturn(Optional.of(response(booking.getId(), validBookingDto.getStart(), BookingStatus.APPROVED)));
+
+        bookingService.setBookingApproval(1L, booking.getId(), true);
+
+        verify(bookingRepository).updateStatusIfOwner(booking.getId(), 1L, BookingStatus.REJECTED,
+                BookingStatus.APPROVED);
+        verify(bookingRepository).countStatusChange(List.of(booking.getId()), BookingStatus.REJECTED.name());
     }
 
-    @Test void setBookingApproval_shouldRejectBooking() {
-        booking.setStatus(BookingStatus.WAITING);
+    @Test void setBookingApproval_shouldThrowConflictIfRejectedBookingNowOverlaps() {
+        booking.setStatus(BookingStatus.REJECTED);
         item.setOwner(1L);
-        booking.setItem(item);
+        booking.setOwner(1L);
+        when(bookingRepository.updateStatusIfOwner(booking.getId(), 1L, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.updateStatusIfOwner(booking.getId(), 1L, BookingStatus.REJECTED, BookingStatus.APPROVED))
+                .thenThrow(new DataIntegrityViolationException("overlap",
+                        new SQLException("conflicting key value violates exclusion constraint \"bookings_no_overlap\"",
+                                "23P01")));
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        Booking result = bookingService.setBookingApproval(1L, booking.getId(), false);
+
+        assertThrows(ConflictException.class, () -> bookingService.setBookingApproval(1L, booking.getId(), true));
+        verify(bookingRepository, never()).countStatusChange(any(), any());
+    }
+
+    @Test void setBookingApproval_shouldApproveWaitingBookingWithSingleUpdate() {
+        item.setOwner(1L);
+        booking.setOwner(1L);
+        when(bookingRepository.updateStatusIfOwner(booking.getId(), 1L, BookingStatus.WAITING, BookingStatus.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findResponseById(booking.getId()))
+                .thenReturn(Optional.of(response(booking.getId(), validBookingDto.getStart(), BookingStatus.APPROVED)));
+
+        BookingResponseDto result = bookingService.setBookingApproval(1L, booking.getId(), true);
+
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(bookingRepository, times(1)).updateStatusIfOwner(anyLong(), anyLong(), any(), any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(bookingRepository).lockBookingMarks(List.of(item.getId()));
+        verify(bookingRepository).refreshBookingMarks(eq(List.of(item.getId())), any(LocalDateTime.class));
+        verify(bookingRepository).countStatusChange(List.of(booking.getId()), BookingStatus.WAITING.name());
+
+        ArgumentCaptor<BookingStatusChangedEvent> event = ArgumentCaptor.forClass(BookingStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(item.getId(), event.getValue().getItemId());
+        assertEquals(BookingStatus.APPROVED, event.getValue().getStatus());
+    }
+
+    @Test void setBookingApproval_shouldRejectWaitingBooking() {
+        item.setOwner(1L);
+        booking.setOwner(1L);
+        when(bookingRepository.updateStatusIfOwner(booking.getId(), 1L, BookingStatus.WAITING, BookingStatus.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findResponseById(booking.getId()))
+                .thenReturn(Optional.of(response(booking.getId(), validBookingDto.getStart(), BookingStatus.REJECTED)));
+
+        BookingResponseDto result = bookingService.setBookingApproval(1L, booking.getId(), false);
+
         assertEquals(BookingStatus.REJECTED, result.getStatus());
+        verify(bookingRepository, never()).refreshBookingMarks(any(), any());
+        verify(bookingRepository).countStatusChange(List.of(booking.getId()), BookingStatus.WAITING.name());
     }
 
     @Test void setBookingApproval_shouldThrowIfAlreadyApproved() {
         booking.setStatus(BookingStatus.APPROVED);
         item.setOwner(1L);
-        booking.setItem(item);
+        booking.setOwner(1L);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        assertThrows(ValidationException.class,
+                () -> bookingService.setBookingApproval(1L, booking.getId(), true));
+    }
+
+    @Test void setBookingApproval_shouldThrowIfExpired() {
+        booking.setStatus(BookingStatus.EXPIRED);
+        item.setOwner(1L);
+        booking.setOwner(1L);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         assertThrows(ValidationException.class,
                 () -> bookingService.setBookingApproval(1L, booking.getId(), true));
@@ -131,71 +291,340 @@ public class BookingServiceImplTest {
 
     @Test void setBookingApproval_shouldThrowIfNotOwner() {
         item.setOwner(999L);
-        booking.setItem(item);
+        booking.setOwner(999L);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
         assertThrows(ValidationException.class,
                 () -> bookingService.setBookingApproval(1L, booking.getId(), true));
     }
 
-    @Test void findBookingsByStateAndBookerId_shouldReturnWaiting() {
-        when(bookingRepository.findBookingsByBookerIdAndStatus(eq(user.getId()), eq(BookingStatus.WAITING), any())).thenReturn(List.of(booking));
-        List<Booking> result = bookingService.findBookingsByStateAndBookerId(user.getId(), "WAITING");
-        assertEquals(1, result.size());
+    @Test void setBookingApproval_shouldThrowIfBookingNotFound() {
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.setBookingApproval(1L, booking.getId(), true));
     }
 
-    @Test void findBookingsByStateAndBookerId_shouldReturnRejected() {
+    @Test void setBookingApproval_shouldThrowConflictIfStatusChangedConcurrently() {
         booking.setStatus(BookingStatus.REJECTED);
-        when(bookingRepository.findBookingsByBookerIdAndStatus(eq(user.getId()), eq(BookingStatus.REJECTED), any())).thenReturn(List.of(booking));
-        List<Booking> result = bookingService.findBookingsByStateAndBookerId(user.getId(), "REJECTED");
-        assertEquals(1, result.size());
+        item.setOwner(1L);
+        booking.setOwner(1L);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.setBookingApproval(1L, booking.getId(), false));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test void setBookingApprovals_shouldReportOutcomeOfEachDecisionInRequestOrder() {
+        when(bookingRepository.lockWaitingBookings(List.of(1L, 2L, 4L), 1L))
+                .thenReturn(List.of(decided(1L, 10L)));
+        when(bookingRepository.lockWaitingBookings(List.of(3L, 5L), 1L))
+                .thenReturn(List.of(decided(3L, 30L)));
+        when(bookingRepository.findOwnerStatuses(List.of(2L, 4L, 5L)))
+                .thenReturn(List.of(ownerStatus(4L, 1L, BookingStatus.REJECTED), ownerStatus(2L, 9L, BookingStatus.WAITING)));
+
+        List<BookingDecisionResult> results = bookingService.setBookingApprovals(1L, List.of(
+                new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, false),
+                new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(5L, false)));
+
+        assertEquals(List.of(
+                new BookingDecisionResult(1L, BookingDecisionOutcome.APPLIED, BookingStatus.APPROVED),
+                new BookingDecisionResult(2L, BookingDecisionOutcome.NOT_OWNER, null),
+                new BookingDecisionResult(3L, BookingDecisionOutcome.APPLIED, BookingStatus.REJECTED),
+                new BookingDecisionResult(4L, BookingDecisionOutcome.ALREADY_DECIDED, BookingStatus.REJECTED),
+                new BookingDecisionResult(5L, BookingDecisionOutcome.NOT_FOUND, null)), results);
+        ArgumentCaptor<BookingStatusChangedEvent> events = ArgumentCaptor.forClass(BookingStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(10L, 30L), events.getAllValues().stream().map(BookingStatusChangedEvent::getItemId).toList());
+        verify(bookingRepository).updateStatuses(List.of(1L), BookingStatus.APPROVED);
+        verify(bookingRepository).updateStatuses(List.of(3L), BookingStatus.REJECTED);
+        // only the approved booking moves the marks of its item
+        verify(bookingRepository).refreshBookingMarks(eq(Set.of(10L)), any(LocalDateTime.class));
+    }
+
+    @Test void setBookingApprovals_shouldSkipDiagnosisWhenEverythingApplied() {
+        when(bookingRepository.lockWaitingBookings(List.of(1L), 1L))
+                .thenReturn(List.of(decided(1L, 10L)));
+
+        bookingService.setBookingApprovals(1L, List.of(new BookingDecisionDto(1L, true)));
+
+        verify(bookingRepository).lockWaitingBookings(any(), anyLong());
+        verify(bookingRepository).updateStatuses(List.of(1L), BookingStatus.APPROVED);
+        verify(bookingRepository, never()).findOwnerStatuses(any());
+    }
+
+    @Test void setBookingApprovals_shouldThrowForDuplicateBooking() {
+        assertThrows(ValidationException.class, () -> bookingService.setBookingApprovals(1L, List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(1L, false))));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test void setBookingApprovals_shouldThrowForEmptyOrIncompleteBatch() {
+        assertThrows(ValidationException.class, () -> bookingService.setBookingApprovals(1L, List.of()));
+        assertThrows(ValidationException.class, () -> bookingService.setBookingApprovals(1L,
+                List.of(new BookingDecisionDto(1L, null))));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test void getBookingByIdAndBookerOrOwner_shouldReturnBookingOfUser() {
+        when(bookingRepository.findResponseByIdForUser(booking.getId(), user.getId())).thenReturn(Optional.of(response));
+
+        assertEquals(response, bookingService.getBookingByIdAndBookerOrOwner(booking.getId(), user.getId()));
+        verify(bookingRepository, never()).existsById(anyLong());
+    }
+
+    @Test void getBookingByIdAndBookerOrOwner_shouldTellMissingBookingFromForeignOne() {
+        when(bookingRepository.existsById(booking.getId())).thenReturn(true);
+        ResourceNotFoundException foreign = assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.getBookingByIdAndBookerOrOwner(booking.getId(), 99L));
+        assertEquals("Booking not found for user with ID: 99", foreign.getMessage());
+
+        ResourceNotFoundException missing = assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.getBookingByIdAndBookerOrOwner(42L, 99L));
+        assertEquals("Booking not found with ID: 42", missing.getMessage());
+    }
+
+    @Test void findBookings_shouldQueryBookerWaitingBookings() {
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), eq(user.getId()), eq(BookingState.WAITING), any(),
+                isNull(), eq(0), eq(11))).thenReturn(List.of(response));
+        BookingPage result = bookingService.findBookings(user.getId(), BookingRole.BOOKER, "WAITING", null, 0, 10);
+        assertEquals(1, result.getBookings().size());
+        assertNull(result.getNextCursor());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test void findBookings_shouldUseOffsetOnlyWithoutCursor() {
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), eq(user.getId()), eq(BookingState.REJECTED), any(),
+                isNull(), eq(10), eq(6))).thenReturn(List.of(response));
+        BookingPage result = bookingService.findBookings(user.getId(), BookingRole.OWNER, "rejected", null, 10, 5);
+        assertEquals(1, result.getBookings().size());
+    }
+
+    @Test void findBookings_shouldReturnCursorOfLastBookingWhenMoreRemain() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        BookingResponseDto first = response(7L, start.plusDays(1), BookingStatus.APPROVED);
+        BookingResponseDto second = response(5L, start, BookingStatus.APPROVED);
+        BookingResponseDto extra = response(3L, start.minusDays(1), BookingStatus.APPROVED);
+        when(bookingRepository.findBookings(any(), anyLong(), any(), any(), isNull(), eq(0), eq(3)))
+                .thenReturn(List.of(first, second, extra));
+
+        BookingPage result = bookingService.findBookings(user.getId(), BookingRole.BOOKER, "ALL", null, 0, 2);
+
+        assertEquals(List.of(first, second), result.getBookings());
+        BookingCursor next = BookingCursor.decode(result.getNextCursor());
+        assertEquals(start, next.getStart());
+        assertEquals(5L, next.getId());
+    }
+
+    @Test void findBookings_shouldSeekAfterCursorAndIgnoreOffset() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String cursor = new BookingCursor(start, 5L).encode();
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), eq(user.getId()), eq(BookingState.ALL), any(),
+                argThat(after -> after.getStart().equals(start) && after.getId() == 5L), eq(0), eq(11)))
+                .thenReturn(List.of(response));
+
+        BookingPage result = bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", cursor, 20, 10);
+
+        assertEquals(List.of(response), result.getBookings());
+    }
+
+    @Test void findBookings_shouldThrowForInvalidCursor() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", "not-a-cursor", 0, 10));
+    }
+
+    @Test void findBookings_shouldPassFutureStateThrough() {
+        when(bookingRepository.findBookings(eq(BookingRole.OWNER), eq(user.getId()), eq(BookingState.FUTURE), any(),
+                isNull(), eq(0), eq(11))).thenReturn(List.of(response));
+        bookingService.findBookings(user.getId(), BookingRole.OWNER, "FUTURE", null, 0, 10);
+        verify(bookingRepository, never())
+                .findBookings(any(), anyLong(), eq(BookingState.ALL), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test void findBookings_shouldTreatMissingStateAsAll() {
+        when(bookingRepository.findBookings(eq(BookingRole.BOOKER), eq(user.getId()), eq(BookingState.ALL), any(),
+                isNull(), eq(0), eq(11))).thenReturn(List.of(response));
+        BookingPage result = bookingService.findBookings(user.getId(), BookingRole.BOOKER, null, null, 0, 10);
+        assertEquals(1, result.getBookings().size());
+    }
+
+    @Test void findBookings_shouldThrowForUnknownState() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.findBookings(user.getId(), BookingRole.BOOKER, "UNKNOWN", null, 0, 10));
+        verifyNoInteractions(bookingRepository);
     }
 
-    @Test void findBookingsByStateAndBookerId_shouldThrowForUnknownState() {
-        assertThrows(ValidationException.class, () -> bookingService.findBookingsByStateAndBookerId(user.getId(), "UNKNOWN"));
+    @Test void findBookings_shouldThrowForInvalidPage() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", null, -1, 10));
+        assertThrows(ValidationException.class,
+                () -> bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", null, 0, 0));
+        assertThrows(ValidationException.class,
+                () -> bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", null, 0, 101));
+    }
+
+    @Test void findBookings_shouldReturnEmptyPageForKnownUser() {
+        when(bookingRepository.findBookings(any(), anyLong(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of());
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        assertTrue(bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", null, 0, 10)
+                .getBookings().isEmpty());
+    }
+
+    @Test void findBookings_shouldThrowIfUserNotFound() {
+        when(bookingRepository.findBookings(any(), anyLong(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of());
+        when(userRepository.existsById(user.getId())).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.findBookings(user.getId(), BookingRole.OWNER, "ALL", null, 0, 10));
     }
 
-    @Test void findBookingsByStateAndOwnerId_shouldReturnWaiting() {
-        when(bookingRepository.existsBookingsByBookerIdOrItemOwner(user.getId(), user.getId())).thenReturn(true);
-        when(bookingRepository.findBookingsByItemOwnerAndStatus(eq(user.getId()), eq(BookingStatus.WAITING), any())).thenReturn(List.of(booking));
-        List<Booking> result = bookingService.findBookingsByStateAndOwnerId(user.getId(), "WAITING");
-        assertEquals(1, result.size());
+    @Test void countBookings_shouldReadCountersRow() {
+        when(bookingRepository.findCounts(user.getId(), BookingRole.OWNER.name()))
+                .thenReturn(Optional.of(counts(5, 1, 2, 2, 1, 1)));
+
+        BookingCountsDto result = bookingService.countBookings(user.getId(), BookingRole.OWNER);
+
+        assertEquals(new BookingCountsDto(5, 1, 2, 2, 1, 1), result);
+        verify(bookingRepository, never()).countOwnerBookings(anyLong(), any());
+        verifyNoInteractions(userRepository);
     }
 
-    @Test void findBookingsByStateAndOwnerId_shouldThrowForUnknownState() {
-        when(bookingRepository.existsBookingsByBookerIdOrItemOwner(user.getId(), user.getId())).thenReturn(true);
-        assertThrows(ValidationException.class, () -> bookingService.findBookingsByStateAndOwnerId(user.getId(), "UNKNOWN"));
+    @Test void countBookings_shouldCountDirectlyWithoutCountersRow() {
+        when(bookingRepository.findCounts(user.getId(), BookingRole.BOOKER.name())).thenReturn(Optional.empty());
+        when(bookingRepository.countBookerBookings(eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(counts(1, 0, 1, 0, 0, 0));
+
+        assertEquals(new BookingCountsDto(1, 0, 1, 0, 0, 0),
+                bookingService.countBookings(user.getId(), BookingRole.BOOKER));
     }
 
-    @Test void findBookingsByStateAndOwnerId_shouldThrowIfNoBookings() {
-        when(bookingRepository.existsBookingsByBookerIdOrItemOwner(user.getId(), user.getId())).thenReturn(false);
-        assertThrows(ResourceNotFoundException.class, () -> bookingService.findBookingsByStateAndOwnerId(user.getId(), "ALL"));
+    @Test void countBookings_shouldReturnZerosForKnownUser() {
+        when(bookingRepository.findCounts(user.getId(), BookingRole.OWNER.name())).thenReturn(Optional.empty());
+        when(bookingRepository.countOwnerBookings(eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(counts(0, 0, 0, 0, 0, 0));
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+
+        assertEquals(new BookingCountsDto(), bookingService.countBookings(user.getId(), BookingRole.OWNER));
     }
 
-    @Test void findBookingsByBookerId_shouldThrowIfEmpty() {
-        when(bookingRepository.findBookingsByBookerIdOrderByStartDesc(user.getId())).thenReturn(Collections.emptyList());
-        assertThrows(ResourceNotFoundException.class, () -> bookingService.findBookingsByBookerId(user.getId()));
+    @Test void countBookings_shouldThrowIfUserNotFound() {
+        when(bookingRepository.findCounts(user.getId(), BookingRole.OWNER.name())).thenReturn(Optional.empty());
+        when(bookingRepository.countOwnerBookings(eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(counts(0, 0, 0, 0, 0, 0));
+        when(userRepository.existsById(user.getId())).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookingService.countBookings(user.getId(), BookingRole.OWNER));
     }
 
-    @Test
-    void findBookingsByStateAndBookerId_shouldReturnAll() {
-        when(bookingRepository.findBookingsByBookerIdOrderByStartDesc(user.getId()))
-                .thenReturn(List.of(booking));
-        List<Booking> result = bookingService.findBookingsByStateAndBookerId(user.getId(), "ALL");
-        assertEquals(1, result.size());
+    private BookingResponseDto response(long id, LocalDateTime start, BookingStatus status) {
+        return new BookingResponseDto(id, start, start.plusDays(1), status, item.getId(), "Дрель", user.getId(),
+                "Арендатор");
     }
 
-    @Test
-    void shouldReturnFutureBookingsForOwner() {
-        // Arrange
-        booking.setStart(LocalDateTime.now().plusDays(1));
-        booking.setEnd(LocalDateTime.now().plusDays(2));
-        when(bookingRepository.existsBookingsByBookerIdOrItemOwner(user.getId(), user.getId())).thenReturn(true);
-        when(bookingRepository.findBookingsByItemOwner(eq(user.getId()), any(Sort.class))).thenReturn(List.of(booking));
+    private static DecidedBookingView decided(long id, long itemId) {
+        return new DecidedBookingView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+        };
+    }
+
+    private static BookingOwnerStatusView ownerStatus(long id, long ownerId, BookingStatus status) {
+        return new BookingOwnerStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
+    private static BookingTargetView target(boolean bookerExists, boolean itemExists, Boolean available,
+                                            Long ownerId) {
+        return new BookingTargetView() {
+            @Override
+            public boolean getBookerExists() {
+                return bookerExists;
+            }
+
+            @Override
+            public boolean getItemExists() {
+                return itemExists;
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return available;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public String getBookerName() {
+                return bookerExists ? "Арендатор" : null;
+            }
+
+            @Override
+            public String getItemName() {
+                return itemExists ? "Дрель" : null;
+            }
+        };
+    }
+
+    private static BookingCountsView counts(long total, long current, long past, long future, long waiting,
+                                            long rejected) {
+        return new BookingCountsView() {
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+
+            @Override
+            public Long getCurrent() {
+                return current;
+            }
+
+            @Override
+            public Long getPast() {
+                return past;
+            }
+
+            @Override
+            public Long getFuture() {
+                return future;
+            }
 
-        // Act
-        List<Booking> result = bookingService.findBookingsByStateAndOwnerId(user.getId(), "FUTURE");
+            @Override
+            public Long getWaiting() {
+                return waiting;
+            }
 
-        // Assert
-        assertEquals(1, result.size());
+            @Override
+            public Long getRejected() {
+                return rejected;
+            }
+        };
     }
-}
\ No newline at end of file
+}
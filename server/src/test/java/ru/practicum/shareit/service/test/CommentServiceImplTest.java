@@ -8,11 +8,10 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.CommentServiceImpl;
-import ru.practicum.shareit.comment.model.Comment;
-import ru.practicum.shareit.exception.ResourceNotFoundException;
-import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.comment.dto.CommentDto;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,9 +21,6 @@ class CommentServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
-    @Mock
-    private UserService userService;
-
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -34,37 +30,16 @@ class CommentServiceImplTest {
     }
 
     @Test
-    @DisplayName("getNameAuthorByCommentId: возвращает имя автора при валидном ID")
-    void getNameAuthorByCommentId_validId_returnsUserName() {
-        Long commentId = 1L;
-        Long authorId = 2L;
-        String expectedName = "John Doe";
-
-        Comment comment = new Comment();
-        comment.setId(commentId);
-        comment.setAuthorId(authorId);
-
-        when(commentRepository.findById(commentId)).thenReturn(Optional.of(comment));
-        when(userService.getUserNameById(authorId)).thenReturn(expectedName);
-
-        String result = commentService.getNameAuthorByCommentId(commentId);
-
-        assertEquals(expectedName, result);
-        verify(commentRepository).findById(commentId);
-        verify(userService).getUserNameById(authorId);
-    }
-
-    @Test
-    @DisplayName("getNameAuthorByCommentId: выбрасывает ResourceNotFoundException при невалидном ID")
-    void getNameAuthorByCommentId_invalidId_throwsException() {
-        Long commentId = 99L;
+    @DisplayName("getCommentsByItemId: возвращает комментарии с именами авторов одним запросом")
+    void getCommentsByItemId_returnsCommentsWithAuthorNames() {
+        CommentDto commentDto = new CommentDto(1L, "text", "John Doe", LocalDateTime.now());
 
-        when(commentRepository.findById(commentId)).thenReturn(Optional.empty());
+        when(commentRepository.findCommentDtosByItemId(5L)).thenReturn(List.of(commentDto));
 
-        assertThrows(ResourceNotFoundException.class, () ->
-                commentService.getNameAuthorByCommentId(commentId));
+        List<CommentDto> result = commentService.getCommentsByItemId(5L);
 
-        verify(commentRepository).findById(commentId);
-        verifyNoInteractions(userService);
+        assertEquals(1, result.size());
+        assertEquals("John Doe", result.get(0).getAuthorName());
+        verify(commentRepository).findCommentDtosByItemId(5L);
     }
-}
\ No newline at end of file
+}
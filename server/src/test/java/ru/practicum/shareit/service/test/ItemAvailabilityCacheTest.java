@@ -0,0 +1,84 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemAvailability;
+import ru.practicum.shareit.item.ItemAvailabilityCache;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemAvailabilityCacheTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemAvailabilityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemAvailabilityCache(meterRegistry, 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_ReturnsCachedCalendarUntilTtlExpires() {
+        cache.put(cache.startLoad(), 1L, availability());
+
+        assertTrue(cache.get(1L, now.plusMinutes(1)).isPresent());
+        assertTrue(cache.get(1L, now.plusMinutes(2)).isEmpty());
+        assertEquals(1.0, meterRegistry.get("shareit.item.availability.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.item.availability.misses").counter().count());
+    }
+
+    @Test
+    void onBookingStatusChanged_DropsOnlyThatItem() {
+        cache.put(cache.startLoad(), 1L, availability());
+        cache.put(cache.startLoad(), 2L, availability());
+
+        cache.onBookingStatusChanged(new BookingStatusChangedEvent(5L, 1L, BookingStatus.WAITING));
+
+        assertTrue(cache.get(1L, now).isEmpty());
+        assertTrue(cache.get(2L, now).isPresent());
+    }
+
+    @Test
+    void put_AfterChangeDuringLoad_IsSkipped() {
+        long loadToken = cache.startLoad();
+        cache.onItemChanged(new ItemChangedEvent(1L, "Дрель", "Новая", false));
+        cache.put(loadToken, 1L, availability());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void freeIntervals_MergesTouchingAndOverlappingPeriods() {
+        List<TimeIntervalDto> booked = List.of(
+                new TimeIntervalDto(now.minusDays(1), now.plusHours(1)),
+                new TimeIntervalDto(now.plusHours(1), now.plusHours(2)),
+                new TimeIntervalDto(now.plusHours(1), now.plusHours(3)),
+                new TimeIntervalDto(now.plusHours(5), now.plusDays(2)));
+
+        List<TimeIntervalDto> free = ItemAvailability.freeIntervals(booked, now, now.plusDays(1));
+
+        assertEquals(List.of(new TimeIntervalDto(now.plusHours(3), now.plusHours(5))), free);
+    }
+
+    @Test
+    void freeIntervals_NoBookings_ReturnsWholeWindow() {
+        assertEquals(List.of(new TimeIntervalDto(now, now.plusDays(1))),
+                ItemAvailability.freeIntervals(List.of(), now, now.plusDays(1)));
+    }
+
+    private ItemAvailability availability() {
+        return new ItemAvailability(true, now, now.plusDays(365), List.of());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemBookingMarksJob;
+import ru.practicum.shareit.booking.dto.BookingMarkDriftView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingMarksJobTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    @Mock private BookingRepository repository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemBookingMarksJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new ItemBookingMarksJob(repository, transactionTemplate, meterRegistry, true, 2, 3);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation
+                -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void advanceBookingMarks_StopsAfterShortBatch() {
+        when(repository.advanceBookingMarks(now, 2)).thenReturn(2).thenReturn(1);
+
+        assertEquals(3, job.advanceBookingMarks(now));
+
+        verify(repository, times(2)).advanceBookingMarks(now, 2);
+        assertEquals(3.0, meterRegistry.get("shareit.item.booking-marks.advanced").counter().count());
+    }
+
+    @Test
+    void advanceBookingMarks_StopsAtMaxBatches() {
+        when(repository.advanceBookingMarks(now, 2)).thenReturn(2);
+
+        assertEquals(6, job.advanceBookingMarks(now));
+
+        verify(repository, times(3)).advanceBookingMarks(now, 2);
+    }
+
+    @Test
+    void checkBookingMarks_RepairsDriftPageByPage() {
+        when(repository.findBookingMarkDrift(0L, now, 2)).thenReturn(List.of(drift(3L, true), drift(7L, false)));
+        when(repository.findBookingMarkDrift(7L, now, 2)).thenReturn(List.of(drift(9L, false)));
+
+        assertEquals(3, job.checkBookingMarks(now));
+
+        verify(repository).lockBookingMarks(List.of(3L, 7L));
+        verify(repository).refreshBookingMarks(List.of(3L, 7L), now);
+        verify(repository).lockBookingMarks(List.of(9L));
+        verify(repository).refreshBookingMarks(List.of(9L), now);
+        assertEquals(1.0, meterRegistry.get("shareit.item.booking-marks.created").counter().count());
+        assertEquals(2.0, meterRegistry.get("shareit.item.booking-marks.repaired").counter().count());
+    }
+
+    @Test
+    void checkBookingMarks_NoDrift_WritesNothing() {
+        when(repository.findBookingMarkDrift(0L, now, 2)).thenReturn(List.of());
+
+        assertEquals(0, job.checkBookingMarks(now));
+
+        verify(repository, never()).lockBookingMarks(any());
+        verify(repository, never()).refreshBookingMarks(any(), any());
+    }
+
+    @Test
+    void advanceAndCheck_WhenDisabled_DoNothing() {
+        ItemBookingMarksJob disabled = new ItemBookingMarksJob(repository, transactionTemplate, meterRegistry,
+                false, 2, 3);
+
+        disabled.advance();
+        disabled.check();
+
+        verifyNoInteractions(repository, transactionTemplate);
+    }
+
+    private static BookingMarkDriftView drift(long itemId, boolean missing) {
+        return new BookingMarkDriftView() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Boolean getMissing() {
+                return missing;
+            }
+        };
+    }
+}
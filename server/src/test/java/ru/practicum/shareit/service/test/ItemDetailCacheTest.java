@@ -0,0 +1,111 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingStatusChangedEvent;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemDetail;
+import ru.practicum.shareit.item.ItemDetailCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailCacheTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemDetailCache(meterRegistry, 2, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void get_ReturnsCachedDetailUntilTtlExpires() {
+        cache.put(cache.startLoad(), 1L, detail(1L));
+
+        assertTrue(cache.get(1L, now.plusMinutes(10)).isPresent());
+        assertTrue(cache.get(1L, now.plusMinutes(11)).isEmpty());
+        assertEquals(1.0, meterRegistry.get("shareit.item.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.item.cache.misses").counter().count());
+    }
+
+    @Test
+    void put_OverMaxSize_EvictsLeastRecentlyUsed() {
+        cache.put(cache.startLoad(), 1L, detail(1L));
+        cache.put(cache.startLoad(), 2L, detail(2L));
+        cache.get(1L, now);
+        cache.put(cache.startLoad(), 3L, detail(3L));
+
+        assertTrue(cache.get(1L, now).isPresent());
+        assertTrue(cache.get(2L, now).isEmpty());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void onItemChanged_DropsOnlyChangedItem() {
+        cache.put(cache.startLoad(), 1L, detail(1L));
+        cache.put(cache.startLoad(), 2L, detail(2L));
+
+        cache.onItemChanged(new ItemChangedEvent(1L, "Дрель", "Новая", true));
+
+        assertTrue(cache.get(1L, now).isEmpty());
+        assertTrue(cache.get(2L, now).isPresent());
+    }
+
+    @Test
+    void onBookingStatusChanged_KeepsItemViewAndDropsBookings() {
+        BookingDto next = BookingDto.builder().id(5L).start(now.plusDays(1)).build();
+        cache.put(cache.startLoad(), 1L, detail(1L).withBookings(null, next));
+
+        cache.onBookingStatusChanged(new BookingStatusChangedEvent(6L, 1L, BookingStatus.APPROVED));
+
+        ItemDetail cached = cache.get(1L, now).orElseThrow();
+        assertEquals("Дрель", cached.getItem().getName());
+        assertFalse(cached.bookingsValidAt(now));
+    }
+
+    @Test
+    void put_DetailLoadedBeforeChange_IsNotCached() {
+        long loadToken = cache.startLoad();
+        cache.onItemChanged(new ItemChangedEvent(2L, "Пила", "Ручная", true));
+
+        cache.put(loadToken, 1L, detail(1L));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void bookingsValidAt_ExpiresWhenNextBookingStarts() {
+        BookingDto next = BookingDto.builder().id(5L).start(now.plusHours(1)).build();
+        ItemDetail withNext = detail(1L).withBookings(null, next);
+        ItemDetail withoutNext = detail(1L).withBookings(null, null);
+
+        assertTrue(withNext.bookingsValidAt(now.plusMinutes(59)));
+        assertFalse(withNext.bookingsValidAt(now.plusHours(1)));
+        assertTrue(withoutNext.bookingsValidAt(now.plusYears(1)));
+        assertFalse(detail(1L).bookingsValidAt(now));
+    }
+
+    @Test
+    void toItemDto_ShowsBookingsToOwnerOnly() {
+        BookingDto last = BookingDto.builder().id(4L).start(now.minusDays(1)).build();
+        ItemDetail detail = detail(1L).withBookings(last, null);
+
+        assertEquals(4L, detail.toItemDto(true).getLastBooking().getId());
+        assertNull(detail.toItemDto(false).getLastBooking());
+    }
+
+    private ItemDetail detail(long itemId) {
+        return new ItemDetail(7L, ItemDto.builder().id(itemId).name("Дрель").build(), now);
+    }
+}
@@ -2,11 +2,11 @@ package ru.practicum.shareit.service.test;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponsesDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
@@ -15,6 +15,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,7 +27,7 @@ class ItemRequestServiceImplTest {
 
     private ItemRequestRepository requestRepository;
     private UserRepository userRepository;
-    private ItemRepository itemRepository;
+    private ItemService itemService;
     private ItemRequestServiceImpl service;
 
     private User user;
@@ -36,9 +37,9 @@ class ItemRequestServiceImplTest {
     void setUp() {
         requestRepository = mock(ItemRequestRepository.class);
         userRepository = mock(UserRepository.class);
-        itemRepository = mock(ItemRepository.class);
+        itemService = mock(ItemService.class);
 
-        service = new ItemRequestServiceImpl(requestRepository, userRepository, itemRepository);
+        service = new ItemRequestServiceImpl(requestRepository, userRepository, itemService);
 
         user = new User(1L, "Test User", "test@example.com");
 
@@ -69,8 +70,8 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getOwnRequests_ReturnsEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(1L)).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findViewsByRequesterIdOrderByCreatedDesc(1L)).thenReturn(Collections.emptyList());
 
         List<ItemRequestWithResponsesDto> result = service.getOwnRequests(1L);
 
@@ -80,7 +81,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getOwnRequests_ThrowsIfUserNotFound() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(99L)).thenReturn(false);
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> service.getOwnRequests(99L));
@@ -90,8 +91,8 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequests_ReturnsEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(requestRepository.findAllByRequesterIdNotOrderByCreatedDesc(1L)).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findViewsByRequesterIdNotOrderByCreatedDesc(1L)).thenReturn(Collections.emptyList());
 
         List<ItemRequestWithResponsesDto> result = service.getAllRequests(1L);
 
@@ -101,7 +102,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequests_UserNotFound_ThrowsException() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(99L)).thenReturn(false);
 
         RuntimeException exception = assertThrows(RuntimeException.class,
                 () -> service.getAllRequests(99L));
@@ -111,7 +112,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestById_RequestNotFound_ThrowsException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(requestRepository.findById(99L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
@@ -126,21 +127,30 @@ class ItemRequestServiceImplTest {
         ItemDto itemDto = ItemDto.builder()
                 .id(10L).name("item").description("desc").available(true).build();
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(user.getId())).thenReturn(true);
         when(requestRepository.findById(requestId)).thenReturn(Optional.of(request));
-        Item item = Item.builder()
-                .id(10L)
-                .name("item")
-                .description("desc")
-                .available(true)
-                .request(request)
-                .build();
-
-        when(itemRepository.findByRequestId(requestId)).thenReturn(List.of(item));
+        when(itemService.findItemsByRequestIds(List.of(requestId))).thenReturn(Map.of(requestId, List.of(itemDto)));
 
         ItemRequestWithResponsesDto result = service.getRequestById(user.getId(), requestId);
 
         assertThat(result.getItems()).hasSize(1);
         assertThat(result.getItems().get(0).getName()).isEqualTo("item");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRequests_LoadsItemsForAllRequestsAtOnce() {
+        ItemRequestView first = new ItemRequestView(1L, "Нужна дрель", LocalDateTime.now());
+        ItemRequestView second = new ItemRequestView(2L, "Нужна пила", LocalDateTime.now());
+        ItemDto itemDto = ItemDto.builder().id(10L).requestId(2L).build();
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.findViewsByRequesterIdNotOrderByCreatedDesc(1L)).thenReturn(List.of(first, second));
+        when(itemService.findItemsByRequestIds(List.of(1L, 2L))).thenReturn(Map.of(2L, List.of(itemDto)));
+
+        List<ItemRequestWithResponsesDto> result = service.getAllRequests(1L);
+
+        assertTrue(result.get(0).getItems().isEmpty());
+        assertEquals(List.of(itemDto), result.get(1).getItems());
+        verify(itemService, times(1)).findItemsByRequestIds(any());
+    }
+}
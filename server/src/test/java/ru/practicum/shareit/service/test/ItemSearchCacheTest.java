@@ -0,0 +1,124 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemSearchCache;
+import ru.practicum.shareit.item.ItemSearchMode;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(meterRegistry, 3, Duration.ofMinutes(1), ItemSearchMode.LIKE);
+    }
+
+    @Test
+    void get_CountsHitsAndMisses() {
+        assertTrue(cache.get("дрель", null, 20, now).isEmpty());
+        cache.put(cache.startLoad(), "дрель", null, 20, result(1L), now);
+
+        assertEquals(List.of(1L), ids(cache.get("дрель", "", 20, now).orElseThrow()));
+        assertTrue(cache.get("дрель", null, 10, now).isEmpty());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache.hits").counter().count());
+        assertEquals(2.0, meterRegistry.get("shareit.search.cache.misses").counter().count());
+    }
+
+    @Test
+    void get_ReturnsCachedPageUntilTtlExpires() {
+        cache.put(cache.startLoad(), "дрель", null, 20, result(1L), now);
+
+        assertTrue(cache.get("дрель", null, 20, now.plusMinutes(1)).isPresent());
+        assertTrue(cache.get("дрель", null, 20, now.plusMinutes(2)).isEmpty());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache.misses").counter().count());
+    }
+
+    @Test
+    void put_OverMaxSize_EvictsLeastRecentlyUsed() {
+        cache.put(cache.startLoad(), "a", null, 20, result(1L), now);
+        cache.put(cache.startLoad(), "b", null, 20, result(2L), now);
+        cache.put(cache.startLoad(), "c", null, 20, result(3L), now);
+        cache.get("a", null, 20, now);
+
+        cache.put(cache.startLoad(), "d", null, 20, result(4L), now);
+
+        assertEquals(3, cache.size());
+        assertTrue(cache.get("a", null, 20, now).isPresent());
+        assertTrue(cache.get("b", null, 20, now).isEmpty());
+        assertEquals(1.0, meterRegistry.get("shareit.search.cache.evictions").counter().count());
+    }
+
+    @Test
+    void onItemChanged_EvictsOnlyPagesContainingOrMatchingItem() {
+        cache.put(cache.startLoad(), "дрель", null, 20, result(1L), now);
+        cache.put(cache.startLoad(), "пила", null, 20, result(2L), now);
+        cache.put(cache.startLoad(), "лестн", null, 20, result(), now);
+
+        cache.onItemChanged(new ItemChangedEvent(1L, "Перфоратор", "Мощный", true));
+        cache.onItemChanged(new ItemChangedEvent(3L, "Лестница", "Алюминиевая", true));
+
+        assertTrue(cache.get("дрель", null, 20, now).isEmpty());
+        assertTrue(cache.get("лестн", null, 20, now).isEmpty());
+        assertTrue(cache.get("пила", null, 20, now).isPresent());
+    }
+
+    @Test
+    void onItemChanged_UnavailableItemDoesNotEvictByText() {
+        cache.put(cache.startLoad(), "лестн", null, 20, result(), now);
+
+        cache.onItemChanged(new ItemChangedEvent(3L, "Лестница", "Алюминиевая", false));
+
+        assertTrue(cache.get("лестн", null, 20, now).isPresent());
+    }
+
+    @Test
+    void put_PageLoadedBeforeChange_IsNotCached() {
+        long loadToken = cache.startLoad();
+        cache.onItemChanged(new ItemChangedEvent(9L, "Пила", "Ручная", true));
+
+        cache.put(loadToken, "дрель", null, 20, result(1L), now);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void onItemChanged_FullTextMode_MatchesQueryWordsByPrefix() {
+        ItemSearchCache fullText = new ItemSearchCache(new SimpleMeterRegistry(), 3, Duration.ofMinutes(1),
+                ItemSearchMode.FULL_TEXT);
+        fullText.put(fullText.startLoad(), "дрели ударные", null, 20, result(), now);
+        fullText.put(fullText.startLoad(), "пила", null, 20, result(), now);
+
+        fullText.onItemChanged(new ItemChangedEvent(5L, "Ударная дрель", "", true));
+
+        assertTrue(fullText.get("дрели ударные", null, 20, now).isEmpty());
+        assertTrue(fullText.get("пила", null, 20, now).isPresent());
+    }
+
+    private static ItemSearchResult result(Long... itemIds) {
+        List<ItemDto> items = Arrays.stream(itemIds)
+                .map(id -> ItemDto.builder().id(id).build())
+                .toList();
+        return new ItemSearchResult(items, null);
+    }
+
+    private static List<Long> ids(ItemSearchResult result) {
+        return result.getItems().stream().map(ItemDto::getId).toList();
+    }
+}
@@ -1,20 +1,33 @@
 package ru.practicum.shareit.service.test;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookedPeriodView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.CommentService;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentView;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.exception.ResourceNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.*;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchHitView;
+import ru.practicum.shareit.item.dto.ItemSearchResult;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -28,6 +41,11 @@ public class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     private CommentRepository commentRepository;
     private CommentService commentService;
+    private ItemTrigramIndex itemTrigramIndex;
+    private ItemSearchCache itemSearchCache;
+    private ItemDetailCache itemDetailCache;
+    private ItemAvailabilityCache itemAvailabilityCache;
+    private ApplicationEventPublisher eventPublisher;
     private ItemServiceImpl itemService;
 
     @BeforeEach
@@ -37,8 +55,76 @@ public class ItemServiceImplTest {
         bookingRepository = mock(BookingRepository.class);
         commentRepository = mock(CommentRepository.class);
         commentService = mock(CommentService.class);
+        itemTrigramIndex = mock(ItemTrigramIndex.class);
+        itemSearchCache = mock(ItemSearchCache.class);
+        itemDetailCache = mock(ItemDetailCache.class);
+        itemAvailabilityCache = new ItemAvailabilityCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        itemService = new ItemServiceImpl(itemRepository, userService, bookingRepository, commentRepository, commentService,
+                itemTrigramIndex, itemSearchCache, itemDetailCache, itemAvailabilityCache, eventPublisher);
+    }
+
+    @Test
+    void getAvailability_ReturnsGapsBetweenBookedPeriodsAndCachesCalendar() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        Item item = new Item();
+        item.setId(1L);
+        item.setAvailable(true);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findBookedPeriods(eq(1L), any(), any())).thenReturn(List.of(
+                bookedPeriod(from.plusDays(1), from.plusDays(2)),
+                bookedPeriod(from.plusDays(2), from.plusDays(3)),
+                bookedPeriod(from.plusDays(5), from.plusDays(6))));
+
+        List<TimeIntervalDto> free = itemService.getAvailability(1L, from, from.plusDays(10));
+        itemService.getAvailability(1L, from, from.plusDays(10));
+
+        assertEquals(List.of(
+                new TimeIntervalDto(from, from.plusDays(1)),
+                new TimeIntervalDto(from.plusDays(3), from.plusDays(5)),
+                new TimeIntervalDto(from.plusDays(6), from.plusDays(10))), free);
+        verify(itemRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).findBookedPeriods(eq(1L), any(), any());
+    }
+
+    @Test
+    void getAvailability_WindowOutsideCalendar_QueriesOnlyWindow() {
+        LocalDateTime from = LocalDateTime.now().minusDays(10).withNano(0);
+        Item item = new Item();
+        item.setId(1L);
+        item.setAvailable(true);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.findBookedPeriods(1L, from, from.plusDays(5)))
+                .thenReturn(List.of(bookedPeriod(from.minusDays(1), from.plusDays(1))));
 
-        itemService = new ItemServiceImpl(itemRepository, userService, bookingRepository, commentRepository, commentService);
+        List<TimeIntervalDto> free = itemService.getAvailability(1L, from, from.plusDays(5));
+
+        assertEquals(List.of(new TimeIntervalDto(from.plusDays(1), from.plusDays(5))), free);
+        // the calendar from now on would not cover the window, so it is neither loaded nor cached
+        verify(bookingRepository, times(1)).findBookedPeriods(eq(1L), any(), any());
+        assertEquals(0, itemAvailabilityCache.size());
+    }
+
+    @Test
+    void getAvailability_UnavailableItem_ReturnsNoFreeIntervals() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setAvailable(false);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertTrue(itemService.getAvailability(1L, from, from.plusDays(1)).isEmpty());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getAvailability_InvalidWindowOrUnknownItem_Throws() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(1L, from, from));
+        assertThrows(ResourceNotFoundException.class, () -> itemService.getAvailability(1L, from, from.plusDays(1)));
     }
 
     @Test
@@ -61,6 +147,40 @@ public class ItemServiceImplTest {
                 itemService.update(1L, 1L, new ItemDto()));
     }
 
+    @Test
+    void saveItems_SavesAllItemsInOneCallAndChecksUserOnce() {
+        ItemDto first = ItemDto.builder().name("Дрель").description("Ударная").available(true).requestId(3L).build();
+        ItemDto second = ItemDto.builder().name("Пила").description("Ручная").available(true).build();
+
+        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@example.com"));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            long id = 10L;
+            for (Item item : items) {
+                item.setId(id++);
+            }
+            return items;
+        });
+
+        List<ItemDto> result = itemService.saveItems(1L, List.of(first, second));
+
+        assertEquals(List.of(10L, 11L), result.stream().map(ItemDto::getId).toList());
+        assertEquals(3L, result.get(0).getRequestId());
+        assertTrue(result.get(1).getComments().isEmpty());
+        verify(userService, times(1)).getUserById(1L);
+        verify(itemRepository, never()).save(any());
+        verify(eventPublisher, times(2)).publishEvent(any(ItemChangedEvent.class));
+    }
+
+    @Test
+    void saveItems_EmptyOrOversizedBatch_ThrowsException() {
+        List<ItemDto> oversized = Collections.nCopies(101, new ItemDto());
+
+        assertThrows(ValidationException.class, () -> itemService.saveItems(1L, List.of()));
+        assertThrows(ValidationException.class, () -> itemService.saveItems(1L, oversized));
+        verifyNoInteractions(userService, itemRepository);
+    }
+
     @Test
     void saveItemWithRequestId_Success() {
         ItemDto dto = new ItemDto();
@@ -81,13 +201,13 @@ public class ItemServiceImplTest {
             return savedItem;
         });
 
-        when(commentRepository.findAllByItemId(anyLong())).thenReturn(Collections.emptyList());
-
         ItemDto result = itemService.saveItem(1L, dto);
 
         assertEquals(dto.getName(), result.getName());
         assertEquals(dto.getDescription(), result.getDescription());
         assertEquals(dto.getRequestId(), result.getRequestId());
+        assertTrue(result.getComments().isEmpty());
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
@@ -100,8 +220,168 @@ public class ItemServiceImplTest {
 
     @Test
     void searchItems_BlankText_ReturnsEmptyList() {
-        List<ItemDto> result = itemService.searchItems("  ");
-        assertTrue(result.isEmpty());
+        ItemSearchResult result = itemService.searchItems("  ", null, 20);
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchItems_PageSizeOutOfRange_ThrowsException() {
+        assertThrows(ValidationException.class, () -> itemService.searchItems("дрел", null, 0));
+        assertThrows(ValidationException.class, () -> itemService.searchItems("дрел", null, 101));
+    }
+
+    @Test
+    void searchItems_InvalidCursor_ThrowsException() {
+        assertThrows(ValidationException.class, () -> itemService.searchItems("дрел", "не курсор", 20));
+    }
+
+    @Test
+    void searchItems_LikeMode_EscapesWildcardsAndSeeksAfterCursor() {
+        ItemView item = itemView(7L);
+        String cursor = new ItemSearchCursor(0, 5L).encode();
+
+        when(itemRepository.searchAvailableByText("100\\%\\_\\_", 5L, Limit.of(21))).thenReturn(List.of(item));
+
+        ItemSearchResult result = itemService.searchItems("100%__", cursor, 20);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+        verify(itemRepository, never()).searchAvailableByFullText(anyString(), anyFloat(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchItems_LikeModeFullPage_ReturnsCursorOfLastItem() {
+        ItemView first = itemView(1L);
+        ItemView second = itemView(2L);
+        ItemView third = itemView(3L);
+
+        when(itemRepository.searchAvailableByText("дрел", 0L, Limit.of(3))).thenReturn(List.of(first, second, third));
+
+        ItemSearchResult result = itemService.searchItems("дрел", null, 2);
+
+        assertEquals(List.of(1L, 2L), result.getItems().stream().map(ItemDto::getId).toList());
+        ItemSearchCursor next = ItemSearchCursor.decode(result.getNextCursor());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test
+    void searchItems_FullTextMode_BuildsPrefixQueryAndKeepsRankOrder() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.FULL_TEXT);
+        ItemView first = itemView(1L);
+        ItemView second = itemView(2L);
+
+        List<ItemSearchHitView> hits = List.of(hit(2L, 0.5f), hit(1L, 0.3f), hit(3L, 0.1f));
+        when(itemRepository.searchAvailableByFullText("аккумуляторная:* & дрель:*", Float.POSITIVE_INFINITY, 0L, 3))
+                .thenReturn(hits);
+        when(itemRepository.findViewsByIdIn(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        ItemSearchResult result = itemService.searchItems(" аккумуляторная, дрель! ", null, 2);
+
+        assertEquals(List.of(2L, 1L), result.getItems().stream().map(ItemDto::getId).toList());
+        ItemSearchCursor next = ItemSearchCursor.decode(result.getNextCursor());
+        assertEquals(0.3f, next.getRank());
+        assertEquals(1L, next.getId());
+        verify(itemRepository, never()).searchAvailableByText(anyString(), anyLong(), any());
+    }
+
+    @Test
+    void searchItems_TrigramMode_LoadsIndexedItemsInIdOrder() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.TRIGRAM);
+        ItemView first = itemView(1L);
+        ItemView second = itemView(2L);
+
+        when(itemTrigramIndex.search("дрел", 0L, 21)).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(second, first));
+
+        ItemSearchResult result = itemService.searchItems("дрел", null, 20);
+
+        assertEquals(List.of(1L, 2L), result.getItems().stream().map(ItemDto::getId).toList());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchItems_CachedPage_SkipsRepository() {
+        ItemSearchResult cached = new ItemSearchResult(List.of(new ItemDto()), null);
+        when(itemSearchCache.get(eq("дрель"), isNull(), eq(20), any(LocalDateTime.class))).thenReturn(Optional.of(cached));
+
+        assertSame(cached, itemService.searchItems("ДРЕЛЬ", null, 20));
+        verifyNoInteractions(itemRepository);
+        verify(itemSearchCache, never()).put(anyLong(), anyString(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void searchItems_LoadedPage_IsPutIntoCacheWithLoadToken() {
+        when(itemSearchCache.startLoad()).thenReturn(3L);
+        when(itemRepository.searchAvailableByText("дрел", 0L, Limit.of(21))).thenReturn(List.of());
+
+        ItemSearchResult result = itemService.searchItems("Дрел", null, 20);
+
+        verify(itemSearchCache).put(eq(3L), eq("дрел"), isNull(), eq(20), eq(result), any(LocalDateTime.class));
+    }
+
+    @Test
+    void searchItems_WithWindow_UsesAntiJoinQueryAndSkipsCache() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 6, 10, 0);
+        when(itemRepository.searchFreeByText("дрел", start, end, 0L, Limit.of(21))).thenReturn(List.of(itemView(4L)));
+
+        ItemSearchResult result = itemService.searchItems("дрел", null, 20, start, end);
+
+        assertEquals(List.of(4L), result.getItems().stream().map(ItemDto::getId).toList());
+        verify(itemRepository, never()).searchAvailableByText(anyString(), anyLong(), any());
+        verifyNoInteractions(itemSearchCache);
+    }
+
+    @Test
+    void searchItems_FullTextModeWithWindow_UsesAntiJoinQuery() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.FULL_TEXT);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 6, 10, 0);
+        List<ItemSearchHitView> hits = List.of(hit(2L, 0.5f));
+        when(itemRepository.searchFreeByFullText("дрель:*", start, end, Float.POSITIVE_INFINITY, 0L, 21))
+                .thenReturn(hits);
+        when(itemRepository.findViewsByIdIn(List.of(2L))).thenReturn(List.of(itemView(2L)));
+
+        ItemSearchResult result = itemService.searchItems("дрель", null, 20, start, end);
+
+        assertEquals(List.of(2L), result.getItems().stream().map(ItemDto::getId).toList());
+        verify(itemRepository, never()).searchAvailableByFullText(anyString(), anyFloat(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchItems_TrigramModeWithWindow_SkipsBookedItemsUntilPageIsFull() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.TRIGRAM);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 6, 10, 0);
+        when(itemTrigramIndex.search("дрел", 0L, 3)).thenReturn(List.of(1L, 2L, 3L));
+        when(itemTrigramIndex.search("дрел", 3L, 3)).thenReturn(List.of(4L, 5L));
+        when(bookingRepository.findItemIdsBookedBetween(eq(List.of(1L, 2L, 3L)), any(), eq(start), eq(end)))
+                .thenReturn(List.of(1L, 3L));
+        when(bookingRepository.findItemIdsBookedBetween(eq(List.of(4L, 5L)), any(), eq(start), eq(end)))
+                .thenReturn(List.of());
+        when(itemRepository.findViewsByIdIn(List.of(2L, 4L))).thenReturn(List.of(itemView(4L), itemView(2L)));
+
+        ItemSearchResult result = itemService.searchItems("дрел", null, 2, start, end);
+
+        assertEquals(List.of(2L, 4L), result.getItems().stream().map(ItemDto::getId).toList());
+        assertEquals(4L, ItemSearchCursor.decode(result.getNextCursor()).getId());
+    }
+
+    @Test
+    void searchItems_InvalidWindow_ThrowsValidationException() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.searchItems("дрел", null, 20, start, null));
+        assertThrows(ValidationException.class, () -> itemService.searchItems("дрел", null, 20, start, start));
+    }
+
+    @Test
+    void searchItems_FullTextModeWithoutWords_ReturnsEmptyList() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.FULL_TEXT);
+
+        assertTrue(itemService.searchItems("!!!", null, 20).getItems().isEmpty());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -172,7 +452,6 @@ public class ItemServiceImplTest {
         item.setComments(Collections.emptyList());
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(commentService.getNameAuthorByCommentId(anyLong())).thenReturn("author");
 
         ItemDto result = itemService.getItemById(1L, 1L);
 
@@ -188,7 +467,6 @@ public class ItemServiceImplTest {
         item.setComments(Collections.emptyList());
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(commentService.getNameAuthorByCommentId(anyLong())).thenReturn("author");
 
         ItemDto result = itemService.getItemById(1L, 1L);
 
@@ -213,5 +491,179 @@ public class ItemServiceImplTest {
         assertEquals("updated", result.getName());
         assertEquals("new desc", result.getDescription());
         assertEquals(false, result.getAvailable());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ItemChangedEvent changed
+                && changed.getItemId() == 1L && !changed.isAvailable()));
+    }
+
+    @Test
+    void findItemsByOwner_EnrichesItemsWithBatchedBookingsAndComments() {
+        ItemView first = itemView(1L);
+        ItemView second = itemView(2L);
+
+        CommentView comment = new CommentView(5L, 2L, "text", "author", LocalDateTime.now());
+
+        ItemBookingView last = mock(ItemBookingView.class);
+        when(last.getId()).thenReturn(10L);
+        when(last.getItemId()).thenReturn(1L);
+        when(last.getBookerId()).thenReturn(3L);
+        when(last.getLast()).thenReturn(true);
+
+        ItemBookingView next = mock(ItemBookingView.class);
+        when(next.getId()).thenReturn(11L);
+        when(next.getItemId()).thenReturn(1L);
+        when(next.getBookerId()).thenReturn(3L);
+        when(next.getLast()).thenReturn(false);
+
+        when(itemRepository.findViewsByOwner(1L)).thenReturn(List.of(first, second));
+        when(commentRepository.findViewsByItemIdIn(List.of(1L, 2L))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextApprovedBookings(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(last, next));
+
+        List<ItemDto> result = itemService.findItemsByOwner(1L);
+
+        assertEquals(2, result.size());
+        assertEquals(10L, result.get(0).getLastBooking().getId());
+        assertEquals(11L, result.get(0).getNextBooking().getId());
+        assertTrue(result.get(0).getComments().isEmpty());
+        assertNull(result.get(1).getLastBooking());
+        assertNull(result.get(1).getNextBooking());
+        assertEquals(1, result.get(1).getComments().size());
+        assertEquals("author", result.get(1).getComments().get(0).getAuthorName());
+        verify(bookingRepository).findMarkedBookings(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void findItemsByOwner_ReadsMarkedBookingsAndComputesOnlyUnmarkedItems() {
+        ItemBookingView last = mock(ItemBookingView.class);
+        when(last.getId()).thenReturn(10L);
+        when(last.getItemId()).thenReturn(1L);
+        when(last.getLast()).thenReturn(true);
+
+        // у вещи 2 отметки есть, но бронирований нет; у вещи 3 отметок нет
+        ItemBookingView empty = mock(ItemBookingView.class);
+        when(empty.getItemId()).thenReturn(2L);
+        when(empty.getId()).thenReturn(null);
+
+        ItemBookingView next = mock(ItemBookingView.class);
+        when(next.getId()).thenReturn(30L);
+        when(next.getItemId()).thenReturn(3L);
+        when(next.getLast()).thenReturn(false);
+
+        when(itemRepository.findViewsByOwner(1L)).thenReturn(List.of(itemView(1L), itemView(2L), itemView(3L)));
+        when(bookingRepository.findMarkedBookings(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(last, empty));
+        when(bookingRepository.findLastAndNextApprovedBookings(eq(List.of(3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(next));
+
+        List<ItemDto> result = itemService.findItemsByOwner(1L);
+
+        assertEquals(10L, result.get(0).getLastBooking().getId());
+        assertNull(result.get(0).getNextBooking());
+        assertNull(result.get(1).getLastBooking());
+        assertNull(result.get(1).getNextBooking());
+        assertEquals(30L, result.get(2).getNextBooking().getId());
+    }
+
+    @Test
+    void findItemsByRequestIds_GroupsItemsByRequest() {
+        ItemView first = itemView(1L, 10L);
+        ItemView second = itemView(2L, 11L);
+        ItemView third = itemView(3L, 10L);
+        when(itemRepository.findViewsByRequestIdIn(List.of(10L, 11L))).thenReturn(List.of(first, second, third));
+
+        Map<Long, List<ItemDto>> result = itemService.findItemsByRequestIds(List.of(10L, 11L));
+
+        assertEquals(List.of(1L, 3L), result.get(10L).stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(2L), result.get(11L).stream().map(ItemDto::getId).toList());
+        verify(commentRepository).findViewsByItemIdIn(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void findItemsByOwner_NoItems_SkipsEnrichment() {
+        when(itemRepository.findViewsByOwner(1L)).thenReturn(Collections.emptyList());
+
+        assertTrue(itemService.findItemsByOwner(1L).isEmpty());
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
+    @Test
+    void getItemById_LoadsCommentsWithAuthorsInOneCall() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setOwner(99L);
+
+        CommentDto commentDto = new CommentDto(1L, "text", "author", LocalDateTime.now());
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentService.getCommentsByItemId(1L)).thenReturn(List.of(commentDto));
+
+        ItemDto result = itemService.getItemById(1L, 1L);
+
+        assertEquals(List.of(commentDto), result.getComments());
+    }
+
+    @Test
+    void getItemById_CachedDetail_SkipsRepositoriesForNonOwner() {
+        ItemDto view = ItemDto.builder().id(1L).name("Дрель").comments(List.of()).build();
+        ItemDetail detail = new ItemDetail(99L, view, LocalDateTime.now());
+        when(itemDetailCache.get(eq(1L), any())).thenReturn(Optional.of(detail));
+
+        ItemDto result = itemService.getItemById(1L, 1L);
+
+        assertEquals("Дрель", result.getName());
+        assertNull(result.getLastBooking());
+        verifyNoInteractions(itemRepository, bookingRepository, commentService);
+        verify(itemDetailCache, never()).put(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void getItemById_CachedDetailWithoutBookings_LoadsBookingsForOwner() {
+        ItemDto view = ItemDto.builder().id(1L).comments(List.of()).build();
+        ItemDetail detail = new ItemDetail(1L, view, LocalDateTime.now());
+        ItemBookingView next = mock(ItemBookingView.class);
+        when(next.getId()).thenReturn(5L);
+        when(next.getItemId()).thenReturn(1L);
+        when(next.getStart()).thenReturn(LocalDateTime.now().plusDays(1));
+        when(next.getLast()).thenReturn(false);
+        when(itemDetailCache.startLoad()).thenReturn(2L);
+        when(itemDetailCache.get(eq(1L), any())).thenReturn(Optional.of(detail));
+        when(bookingRepository.findLastAndNextApprovedBookings(eq(List.of(1L)), any())).thenReturn(List.of(next));
+
+        ItemDto result = itemService.getItemById(1L, 1L);
+
+        assertEquals(5L, result.getNextBooking().getId());
+        assertNull(result.getLastBooking());
+        verifyNoInteractions(itemRepository, commentService);
+        verify(itemDetailCache).put(eq(2L), eq(1L), argThat(cached -> cached.getNextBooking().getId() == 5L));
+    }
+
+    private static ItemSearchHitView hit(Long id, Float rank) {
+        ItemSearchHitView hit = mock(ItemSearchHitView.class);
+        when(hit.getId()).thenReturn(id);
+        when(hit.getRank()).thenReturn(rank);
+        return hit;
+    }
+
+    private static ItemView itemView(Long id) {
+        return itemView(id, null);
+    }
+
+    private static ItemView itemView(Long id, Long requestId) {
+        return new ItemView(id, "Предмет " + id, "Описание", true, requestId);
+    }
+
+    private static BookedPeriodView bookedPeriod(LocalDateTime start, LocalDateTime end) {
+        return new BookedPeriodView() {
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.service.test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchMode;
+import ru.practicum.shareit.item.ItemTrigramIndex;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ItemTrigramIndexTest {
+
+    private ItemRepository itemRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ItemTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new ItemTrigramIndex(itemRepository, meterRegistry, ItemSearchMode.TRIGRAM);
+
+        List<ItemSearchView> items = List.of(
+                view(1L, "Дрель", "Аккумуляторная дрель"),
+                view(2L, "Шуруповерт", "Сетевой шуруповерт"),
+                view(3L, "Отвертка", "Крестовая abcXbcd"));
+        when(itemRepository.findAllByAvailableIsTrue()).thenReturn(items);
+        index.rebuild();
+    }
+
+    @Test
+    void search_MatchesSubstringOfNameOrDescriptionIgnoringCase() {
+        assertEquals(List.of(1L), index.search("АККУМ", 0, 100));
+        assertEquals(List.of(2L), index.search("вой шуруп", 0, 100));
+        assertEquals(List.of(1L), index.search("дрел", 0, 100));
+    }
+
+    @Test
+    void search_ShortQuery_ScansIndexedItems() {
+        assertEquals(List.of(1L, 2L, 3L), index.search("е", 0, 100));
+        assertEquals(List.of(3L), index.search("bc", 0, 100));
+    }
+
+    @Test
+    void search_AfterIdAndLimit_ReturnsNextPage() {
+        assertEquals(List.of(1L, 2L), index.search("е", 0, 2));
+        assertEquals(List.of(3L), index.search("е", 2, 2));
+        assertEquals(List.of(2L), index.search("ру", 1, 1));
+        assertTrue(index.search("дрел", 1, 10).isEmpty());
+    }
+
+    @Test
+    void search_TrigramsPresentButNotContiguous_DoesNotMatch() {
+        assertTrue(index.search("abcd", 0, 100).isEmpty());
+        assertTrue(index.search("несуществующее", 0, 100).isEmpty());
+    }
+
+    @Test
+    void onItemChanged_UpdatesTextAndAvailability() {
+        index.onItemChanged(new ItemChangedEvent(4L, "Лестница", "Алюминиевая", true));
+        index.onItemChanged(new ItemChangedEvent(1L, "Перфоратор", "Мощный", true));
+
+        assertEquals(List.of(4L), index.search("лестн", 0, 100));
+        assertTrue(index.search("дрел", 0, 100).isEmpty());
+        assertEquals(List.of(1L), index.search("перфо", 0, 100));
+
+        index.onItemChanged(new ItemChangedEvent(4L, "Лестница", "Алюминиевая", false));
+
+        assertTrue(index.search("лестн", 0, 100).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_KeepsChangesMadeWhileSnapshotIsRead() {
+        when(itemRepository.findAllByAvailableIsTrue()).thenAnswer(invocation -> {
+            // committed after the snapshot below was taken
+            index.onItemChanged(new ItemChangedEvent(1L, "Дрель", "Аккумуляторная дрель", false));
+            index.onItemChanged(new ItemChangedEvent(5L, "Пила", "Ручная", true));
+            return List.of(view(1L, "Дрель", "Аккумуляторная дрель"), view(2L, "Шуруповерт", "Сетевой шуруповерт"));
+        });
+
+        index.rebuild();
+
+        assertTrue(index.search("дрел", 0, 100).isEmpty());
+        assertEquals(List.of(5L), index.search("пила", 0, 100));
+        assertEquals(2, index.size());
+
+        index.onItemChanged(new ItemChangedEvent(2L, "Шуруповерт", "Сетевой шуруповерт", false));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void search_FoldsCaseCharacterByCharacterLikeUpper() {
+        index.onItemChanged(new ItemChangedEvent(6L, "Οδος", "Straße", true));
+
+        // UPPER maps final sigma to Σ and leaves ß as it is
+        assertEquals(List.of(6L), index.search("ΟΔΟΣ", 0, 100));
+        assertEquals(List.of(6L), index.search("STRAßE", 0, 100));
+        assertTrue(index.search("STRASSE", 0, 100).isEmpty());
+    }
+
+    @Test
+    void gauges_ReportIndexSizeAndMemoryPerItem() {
+        assertEquals(3.0, meterRegistry.get("shareit.search.index.items").gauge().value());
+        assertTrue(meterRegistry.get("shareit.search.index.bytes.per.item").gauge().value() > 0);
+    }
+
+    @Test
+    void disabledIndex_IgnoresBuildAndUpdates() {
+        ItemTrigramIndex disabled = new ItemTrigramIndex(itemRepository, new SimpleMeterRegistry(), ItemSearchMode.LIKE);
+
+        disabled.rebuild();
+        disabled.onItemChanged(new ItemChangedEvent(5L, "Пила", "Ручная", true));
+
+        assertEquals(0, disabled.size());
+        verify(itemRepository, times(1)).findAllByAvailableIsTrue();
+    }
+
+    private static ItemSearchView view(Long id, String name, String description) {
+        ItemSearchView view = mock(ItemSearchView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getName()).thenReturn(name);
+        when(view.getDescription()).thenReturn(description);
+        return view;
+    }
+}
@@ -34,8 +34,8 @@ class UserServiceImplTest {
 
     @Test
     void getAllUsers_returnsListOfUserDto() {
-        List<User> users = List.of(new User(1L, "User", "user@example.com"));
-        when(repository.findAll()).thenReturn(users);
+        List<UserDto> users = List.of(new UserDto(1L, "User", "user@example.com"));
+        when(repository.findAllUserDtos()).thenReturn(users);
 
         List<UserDto> result = service.getAllUsers();
 
@@ -69,23 +69,6 @@ class UserServiceImplTest {
         assertThrows(ValidationException.class, () -> service.saveUser(input));
     }
 
-    @Test
-    void getUserNameById_validId_returnsName() {
-        User user = new User(1L, "User", "user@example.com");
-        when(repository.findById(1L)).thenReturn(Optional.of(user));
-
-        String name = service.getUserNameById(1L);
-
-        assertEquals("User", name);
-    }
-
-    @Test
-    void getUserNameById_invalidId_throwsException() {
-        when(repository.findById(1L)).thenReturn(Optional.empty());
-
-        assertThrows(ResourceNotFoundException.class, () -> service.getUserNameById(1L));
-    }
-
     @Test
     void update_validData_returnsUpdatedUser() {
         User existing = new User(1L, "OldName", "old@example.com");
@@ -120,4 +103,4 @@ class UserServiceImplTest {
     void deleteUserById_invalidId_throwsValidationException() {
         assertThrows(ValidationException.class, () -> service.deleteUserById(0));
     }
-}
\ No newline at end of file
+}
@@ -1,3 +1,6 @@
+-- Нужно для ограничения, запрещающего пересекающиеся бронирования одной вещи
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 -- 1. Создание таблицы пользователей
 CREATE TABLE IF NOT EXISTS public.users (
     id BIGSERIAL PRIMARY KEY,
@@ -23,12 +26,18 @@ CREATE TABLE IF NOT EXISTS public.items (
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    search_vector tsvector GENERATED ALWAYS AS (
+        to_tsvector('russian', coalesce(name, '') || ' ' || description)
+    ) STORED,
     CONSTRAINT fk_items_owner FOREIGN KEY (owner_id)
         REFERENCES public.users(id) ON DELETE CASCADE,
     CONSTRAINT fk_items_request FOREIGN KEY (request_id)
-        REFERENCES public.requests(id) ON DELETE SET NULL
+        REFERENCES public.requests(id) ON DELETE SET NULL,
+    CONSTRAINT uq_items_id_owner UNIQUE (id, owner_id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON public.items USING GIN (search_vector) WHERE is_available;
+
 -- 4. Создание таблицы бронирований
 CREATE TABLE IF NOT EXISTS public.bookings (
     id BIGSERIAL PRIMARY KEY,
@@ -36,13 +45,127 @@ CREATE TABLE IF NOT EXISTS public.bookings (
     end_date TIMESTAMP NOT NULL,
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
     status VARCHAR(20) NOT NULL,
     CONSTRAINT fk_bookings_item FOREIGN KEY (item_id)
         REFERENCES public.items(id),
+    CONSTRAINT fk_bookings_item_owner FOREIGN KEY (item_id, owner_id)
+        REFERENCES public.items(id, owner_id) ON UPDATE CASCADE,
     CONSTRAINT fk_bookings_booker FOREIGN KEY (booker_id)
-        REFERENCES public.users(id)
+        REFERENCES public.users(id),
+    CONSTRAINT bookings_no_overlap EXCLUDE USING gist (
+        item_id WITH =,
+        tsrange(start_date, end_date) WITH &&
+    ) WHERE (status IN ('WAITING', 'APPROVED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON public.items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON public.bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON public.bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON public.bookings (booker_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON public.bookings (owner_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON public.bookings (owner_id, status, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON public.bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON public.bookings (start_date) WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_start ON public.bookings (start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON public.bookings (end_date);
+
+-- 4.1. Последнее и следующее одобренное бронирование каждой вещи
+CREATE TABLE IF NOT EXISTS public.item_booking_marks (
+    item_id BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    next_start TIMESTAMP,
+    CONSTRAINT fk_item_booking_marks_item FOREIGN KEY (item_id)
+        REFERENCES public.items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_item_booking_marks_last FOREIGN KEY (last_booking_id)
+        REFERENCES public.bookings(id),
+    CONSTRAINT fk_item_booking_marks_next FOREIGN KEY (next_booking_id)
+        REFERENCES public.bookings(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_item_booking_marks_next_start ON public.item_booking_marks (next_start);
+
+-- 4.2. Счётчики бронирований пользователя по состояниям и момент, на который посчитаны CURRENT/PAST/FUTURE
+CREATE TABLE IF NOT EXISTS public.booking_counters (
+    user_id BIGINT NOT NULL,
+    role VARCHAR(10) NOT NULL,
+    total BIGINT NOT NULL,
+    current BIGINT NOT NULL,
+    past BIGINT NOT NULL,
+    future BIGINT NOT NULL,
+    waiting BIGINT NOT NULL,
+    rejected BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role),
+    CONSTRAINT fk_booking_counters_user FOREIGN KEY (user_id)
+        REFERENCES public.users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS public.booking_counter_clock (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    counted_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO public.booking_counter_clock (id, counted_at) VALUES (1, LOCALTIMESTAMP) ON CONFLICT (id) DO NOTHING;
+
+-- 4.3. Учёт новых бронирований в счётчиках прямо в INSERT
+CREATE OR REPLACE FUNCTION count_created_bookings() RETURNS trigger LANGUAGE plpgsql AS '
+DECLARE
+    clock_at TIMESTAMP;
+BEGIN
+    SELECT k.counted_at INTO clock_at FROM booking_counter_clock k FOR SHARE;
+
+    INSERT INTO booking_counters (user_id, role, total, current, past, future, waiting, rejected)
+    SELECT u.user_id, u.role,
+           COUNT(x.id),
+           COUNT(x.id) FILTER (WHERE x.start_date <= clock_at AND x.end_date > clock_at),
+           COUNT(x.id) FILTER (WHERE x.end_date <= clock_at),
+           COUNT(x.id) FILTER (WHERE x.start_date > clock_at),
+           COUNT(x.id) FILTER (WHERE x.status = ''WAITING''),
+           COUNT(x.id) FILTER (WHERE x.status = ''REJECTED'')
+    FROM (SELECT n.booker_id AS user_id, ''BOOKER'' AS role FROM inserted n
+          UNION
+          SELECT n.owner_id, ''OWNER'' FROM inserted n) u
+    LEFT JOIN bookings x ON ((u.role = ''BOOKER'' AND x.booker_id = u.user_id)
+                             OR (u.role = ''OWNER'' AND x.owner_id = u.user_id))
+                        AND x.id NOT IN (SELECT n.id FROM inserted n)
+    WHERE NOT EXISTS (SELECT 1 FROM booking_counters c WHERE c.user_id = u.user_id AND c.role = u.role)
+    GROUP BY u.user_id, u.role
+    ORDER BY u.user_id, u.role
+    ON CONFLICT (user_id, role) DO NOTHING;
+
+    WITH d AS (SELECT u.user_id, u.role,
+                      COUNT(*) AS total,
+                      COUNT(*) FILTER (WHERE n.start_date <= clock_at AND n.end_date > clock_at) AS current,
+                      COUNT(*) FILTER (WHERE n.end_date <= clock_at) AS past,
+                      COUNT(*) FILTER (WHERE n.start_date > clock_at) AS future,
+                      COUNT(*) FILTER (WHERE n.status = ''WAITING'') AS waiting,
+                      COUNT(*) FILTER (WHERE n.status = ''REJECTED'') AS rejected
+               FROM inserted n
+               CROSS JOIN LATERAL (VALUES (n.booker_id, ''BOOKER''), (n.owner_id, ''OWNER'')) u(user_id, role)
+               GROUP BY u.user_id, u.role),
+         locked AS (SELECT c.user_id, c.role FROM booking_counters c
+                    JOIN d ON d.user_id = c.user_id AND d.role = c.role
+                    ORDER BY c.user_id, c.role
+                    FOR UPDATE OF c)
+    UPDATE booking_counters c
+    SET total = c.total + d.total,
+        current = c.current + d.current,
+        past = c.past + d.past,
+        future = c.future + d.future,
+        waiting = c.waiting + d.waiting,
+        rejected = c.rejected + d.rejected
+    FROM d JOIN locked l ON l.user_id = d.user_id AND l.role = d.role
+    WHERE c.user_id = d.user_id AND c.role = d.role;
+
+    RETURN NULL;
+END';
+
+DROP TRIGGER IF EXISTS bookings_count_created ON public.bookings;
+CREATE TRIGGER bookings_count_created AFTER INSERT ON public.bookings
+    REFERENCING NEW TABLE AS inserted
+    FOR EACH STATEMENT EXECUTE FUNCTION count_created_bookings();
+
 -- 5. Создание таблицы комментариев
 CREATE TABLE IF NOT EXISTS public.comments (
     id BIGSERIAL PRIMARY KEY,
@@ -79,10 +202,10 @@ INSERT INTO public.items (id, name, description, is_available, owner_id, request
     (4, 'Молоток', 'Строительный молоток', false, 4, null);
 
 -- Бронирования
-INSERT INTO public.bookings (id, start_date, end_date, item_id, booker_id, status) VALUES
-    (1, '2023-07-20 12:00:00', '2023-07-25 12:00:00', 1, 3, 'APPROVED'),
-    (2, '2023-08-01 09:30:00', '2023-08-05 18:00:00', 2, 4, 'WAITING'),
-    (3, '2023-09-10 10:00:00', '2023-09-15 10:00:00', 3, 1, 'REJECTED');
+INSERT INTO public.bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) VALUES
+    (1, '2023-07-20 12:00:00', '2023-07-25 12:00:00', 1, 3, 3, 'APPROVED'),
+    (2, '2023-08-01 09:30:00', '2023-08-05 18:00:00', 2, 4, 4, 'WAITING'),
+    (3, '2023-09-10 10:00:00', '2023-09-15 10:00:00', 3, 1, 3, 'REJECTED');
 
 -- Комментарии
 INSERT INTO public.comments (id, text, item_id, author_id, created_at) VALUES
@@ -90,9 +213,16 @@ INSERT INTO public.comments (id, text, item_id, author_id, created_at) VALUES
     (2, 'Шуруповерт немного слабоват', 2, 4, '2023-08-06 15:30:00'),
     (3, 'Лестница очень удобная и легкая', 3, 1, '2023-09-16 11:45:00');
 
--- Сдвигаем последовательности, чтобы избежать конфликта с автоинкрементом
-    SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT MAX(id) FROM users));
-    SELECT setval(pg_get_serial_sequence('requests', 'id'), (SELECT MAX(id) FROM requests));
-    SELECT setval(pg_get_serial_sequence('items', 'id'), (SELECT MAX(id) FROM items));
-    SELECT setval(pg_get_serial_sequence('bookings', 'id'), (SELECT MAX(id) FROM bookings));
-    SELECT setval(pg_get_serial_sequence('comments', 'id'), (SELECT MAX(id) FROM comments));
\ No newline at end of file
+-- Сдвигаем последовательности, чтобы избежать конфликта с автоинкрементом.
+-- Hibernate резервирует по 50 идентификаторов на вызов nextval (pooled-lo): шаг последовательности
+-- должен совпадать с allocationSize, а nextval должен вернуть первый свободный идентификатор
+    ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+    ALTER SEQUENCE requests_id_seq INCREMENT BY 50;
+    ALTER SEQUENCE items_id_seq INCREMENT BY 50;
+    ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+    ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+    SELECT setval('users_id_seq', (SELECT MAX(id) FROM users) + 1, false);
+    SELECT setval('requests_id_seq', (SELECT MAX(id) FROM requests) + 1, false);
+    SELECT setval('items_id_seq', (SELECT MAX(id) FROM items) + 1, false);
+    SELECT setval('bookings_id_seq', (SELECT MAX(id) FROM bookings) + 1, false);
+    SELECT setval('comments_id_seq', (SELECT MAX(id) FROM comments) + 1, false);